@@ -0,0 +1,19 @@
+package com.pollvoting.poll_reader_app;
+
+import com.pollvoting.poll_voting_app.security.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+// JwtUtil is compiled in from poll-voting-app (see pom.xml), so tokens issued there are accepted here;
+// there are no local users or passwords
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@Import(JwtUtil.class)
+public class PollReaderAppApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(PollReaderAppApplication.class, args);
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.pollvoting.poll_reader_app.controller;
+
+import com.pollvoting.poll_reader_app.dto.OptionResponse;
+import com.pollvoting.poll_reader_app.dto.PollResponse;
+import com.pollvoting.poll_reader_app.repository.PollReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read endpoints of poll-voting-app's PollController, without blocking a thread per
+ * request. Lists are written element by element as rows arrive, as a JSON array or, with
+ * Accept: application/x-ndjson, one poll per line; a slow client slows the database
+ * read down instead of the response piling up in memory.
+ */
+@RestController
+@RequestMapping("/api/polls")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class PollReadController {
+
+    private final PollReadRepository pollReadRepository;
+
+    //  Get all polls
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PollResponse> getAllPolls(Authentication auth) {
+        return pollReadRepository.findUserId(auth.getName())
+                .flatMapMany(pollReadRepository::findPolls);
+    }
+
+    //  Get single poll by ID
+    @GetMapping("/{pollId}")
+    public Mono<PollResponse> getPollById(@PathVariable Long pollId, Authentication auth) {
+        return pollReadRepository.findUserId(auth.getName())
+                .flatMap(userId -> pollReadRepository.findPoll(pollId, userId))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Poll not found")));
+    }
+
+    //  Current counts of a poll's options
+    @GetMapping(value = "/{pollId}/results", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<OptionResponse> getResults(@PathVariable Long pollId) {
+        return pollReadRepository.findResults(pollId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Poll not found")));
+    }
+}
@@ -0,0 +1,10 @@
+package com.pollvoting.poll_reader_app.dto;
+
+import lombok.Data;
+
+@Data
+public class OptionResponse {
+    private Long id;
+    private String text;
+    private int votes;
+}
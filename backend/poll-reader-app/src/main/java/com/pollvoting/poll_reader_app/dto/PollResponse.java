@@ -0,0 +1,19 @@
+package com.pollvoting.poll_reader_app.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Same JSON as poll-voting-app's PollResponse
+@Data
+public class PollResponse {
+    private Long id;
+    private String question;
+    private String status;
+    private String pollType;
+    private LocalDateTime closesAt;
+    private List<OptionResponse> options;
+    private boolean hasVoted;
+    private Long userVote;
+}
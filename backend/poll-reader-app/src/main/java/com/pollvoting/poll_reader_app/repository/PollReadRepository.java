@@ -0,0 +1,130 @@
+package com.pollvoting.poll_reader_app.repository;
+
+import com.pollvoting.poll_reader_app.dto.OptionResponse;
+import com.pollvoting.poll_reader_app.dto.PollResponse;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only queries against the poll-voting-app schema. Polls are read as one row per
+ * option, ordered by poll, and folded into a response as each poll's last row arrives,
+ * so a listing is emitted poll by poll at the pace the client consumes it and only one
+ * poll is ever held in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PollReadRepository {
+
+    // Counts are the sum of an option's counter shards, as in VoteCounterService
+    private static final String VOTES =
+            "(SELECT COALESCE(SUM(s.vote_count), 0) FROM option_counter_shards s WHERE s.option_id = o.id)";
+
+    private static final String LIVE_POLL_ROWS = "SELECT p.id AS poll_id, p.question, p.status, p.poll_type, p.closes_at, " +
+            "o.id AS option_id, o.text, " + VOTES + " AS votes, " +
+            "(SELECT COUNT(*) FROM user_votes uv WHERE uv.option_id = o.id AND uv.user_id = :userId) AS voted " +
+            "FROM polls p JOIN poll_options o ON o.poll_id = p.id WHERE p.status <> 'ARCHIVED' ";
+
+    // Only single-choice polls are archived
+    private static final String ARCHIVED_POLL_ROWS = "SELECT p.id AS poll_id, p.question, 'CLOSED' AS status, " +
+            "'SINGLE_CHOICE' AS poll_type, p.closes_at, " +
+            "o.id AS option_id, o.text, o.vote_count AS votes, " +
+            "(SELECT COUNT(*) FROM archived_votes v WHERE v.poll_id = p.id AND v.option_id = o.id AND v.user_id = :userId) AS voted " +
+            "FROM archived_polls p JOIN archived_poll_options o ON o.poll_id = p.id ";
+
+    private final DatabaseClient db;
+
+    //  Id of the user a token was issued to; -1 (no votes) if the account is gone
+    public Mono<Long> findUserId(String email) {
+        return db.sql("SELECT id FROM users WHERE email = :email")
+                .bind("email", email)
+                .map(row -> number(row, "id"))
+                .one()
+                .defaultIfEmpty(-1L);
+    }
+
+    //  All polls that aren't archived, in id order
+    public Flux<PollResponse> findPolls(long userId) {
+        return pollRows(db.sql(LIVE_POLL_ROWS + "ORDER BY p.id, o.id")
+                .bind("userId", userId));
+    }
+
+    //  A live poll, or its archived copy
+    public Mono<PollResponse> findPoll(long pollId, long userId) {
+        return pollRows(db.sql(LIVE_POLL_ROWS + "AND p.id = :pollId ORDER BY o.id")
+                .bind("pollId", pollId)
+                .bind("userId", userId))
+                .next()
+                .switchIfEmpty(Mono.defer(() -> pollRows(db.sql(ARCHIVED_POLL_ROWS + "WHERE p.id = :pollId ORDER BY o.id")
+                        .bind("pollId", pollId)
+                        .bind("userId", userId))
+                        .next()));
+    }
+
+    //  Just the options and their counts, for clients polling for results
+    public Flux<OptionResponse> findResults(long pollId) {
+        return db.sql("SELECT o.id AS option_id, o.text, " + VOTES + " AS votes FROM poll_options o " +
+                        "JOIN polls p ON p.id = o.poll_id WHERE p.id = :pollId AND p.status <> 'ARCHIVED' ORDER BY o.id")
+                .bind("pollId", pollId)
+                .map(this::toOptionResponse)
+                .all()
+                .switchIfEmpty(Flux.defer(() -> db.sql("SELECT id AS option_id, text, vote_count AS votes FROM archived_poll_options " +
+                                "WHERE poll_id = :pollId ORDER BY id")
+                        .bind("pollId", pollId)
+                        .map(this::toOptionResponse)
+                        .all()));
+    }
+
+    private Flux<PollResponse> pollRows(DatabaseClient.GenericExecuteSpec query) {
+        return query
+                .map(row -> new PollRow(number(row, "poll_id"),
+                        row.get("question", String.class),
+                        row.get("status", String.class),
+                        row.get("poll_type", String.class),
+                        row.get("closes_at", LocalDateTime.class),
+                        toOptionResponse(row),
+                        number(row, "voted") > 0))
+                .all()
+                .bufferUntilChanged(PollRow::pollId)
+                .map(this::toPollResponse);
+    }
+
+    private PollResponse toPollResponse(List<PollRow> rows) {
+        PollRow first = rows.get(0);
+        PollResponse response = new PollResponse();
+        response.setId(first.pollId());
+        response.setQuestion(first.question());
+        response.setStatus(first.status());
+        response.setPollType(first.pollType());
+        response.setClosesAt(first.closesAt());
+        response.setOptions(rows.stream().map(PollRow::option).toList());
+        rows.stream().filter(PollRow::voted).findFirst().ifPresent(row -> {
+            response.setHasVoted(true);
+            response.setUserVote(row.option().getId());
+        });
+        return response;
+    }
+
+    private OptionResponse toOptionResponse(Readable row) {
+        OptionResponse response = new OptionResponse();
+        response.setId(number(row, "option_id"));
+        response.setText(row.get("text", String.class));
+        response.setVotes((int) number(row, "votes"));
+        return response;
+    }
+
+    // SUM and COUNT come back as DECIMAL or BIGINT depending on the database
+    private static long number(Readable row, String column) {
+        return ((Number) row.get(column)).longValue();
+    }
+
+    private record PollRow(long pollId, String question, String status, String pollType, LocalDateTime closesAt,
+                           OptionResponse option, boolean voted) {
+    }
+}
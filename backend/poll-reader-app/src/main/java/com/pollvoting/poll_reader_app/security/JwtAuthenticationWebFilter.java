@@ -0,0 +1,44 @@
+package com.pollvoting.poll_reader_app.security;
+
+import com.pollvoting.poll_voting_app.security.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of poll-voting-app's JwtAuthenticationFilter, validating with the
+ * same JwtUtil. The token's signature and expiry are enough for reads, so unlike the
+ * servlet filter there is no user lookup per request; the email becomes the principal.
+ * Built by SecurityConfig rather than being a bean, so it only runs in the security chain
+ * and not a second time as a global WebFilter.
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+
+            if (jwtUtil.validateToken(token)) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(jwtUtil.extractEmail(token), null, List.of());
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,357 @@
+package com.pollvoting.poll_reader_app;
+
+import com.pollvoting.poll_voting_app.security.JwtUtil;
+import org.flywaydb.core.Flyway;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Threads, database connections and memory of the servlet (poll-voting-app) and reactive
+ * (poll-reader-app) read paths with a thousand concurrent slow readers of GET /api/polls.
+ *
+ * Both apps run from their jars, one after the other, against an H2 server (MySQL mode) that
+ * the benchmark migrates and seeds. Each reader takes one chunk of the response at a time,
+ * -Dbenchmark.readers.chunk-interval-ms apart, so the responses are in flight together.
+ * The servlet app's load shedding is turned off so both stacks see every reader.
+ *
+ * Needs both jars: {@code mvn package -DskipTests} in poll-voting-app and here, then
+ * {@code mvn test -Pbenchmark -Dtest=ReadPathBenchmark}. Tune with -Dbenchmark.readers.count
+ * and -Dbenchmark.readers.polls.
+ */
+@Tag("benchmark")
+class ReadPathBenchmark {
+
+	private static final int READERS = Integer.getInteger("benchmark.readers.count", 1000);
+	private static final int POLLS = Integer.getInteger("benchmark.readers.polls", 200);
+	private static final long CHUNK_INTERVAL_MS = Long.getLong("benchmark.readers.chunk-interval-ms", 20);
+	private static final Path SERVLET_JAR = Path.of(System.getProperty("benchmark.readers.servlet-jar",
+			"../poll-voting-app/target/poll-voting-app-1.0.0.jar"));
+	private static final Path REACTIVE_JAR = Path.of(System.getProperty("benchmark.readers.reactive-jar",
+			"target/poll-reader-app-1.0.0.jar"));
+	private static final String LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+	private static final String SECRET = "benchmarkSecretForJWTTokenGenerationWhichIsLongEnough1234567890";
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(30))
+			.build();
+
+	@TempDir
+	Path workDir;
+
+	@Test
+	void concurrentSlowReaders() throws Exception {
+		assumeTrue(Files.exists(SERVLET_JAR) && Files.exists(REACTIVE_JAR),
+				"build both jars first with mvn package -DskipTests in poll-voting-app and poll-reader-app");
+
+		int dbPort = freePort();
+		Server h2 = Server.createTcpServer("-tcpPort", String.valueOf(dbPort), "-ifNotExists").start();
+		try {
+			String jdbcUrl = "jdbc:h2:tcp://localhost:" + dbPort + "/mem:readers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+			Flyway.configure()
+					.dataSource(jdbcUrl, "sa", "")
+					.locations("filesystem:../poll-voting-app/src/main/resources/db/migration")
+					.load()
+					.migrate();
+			String email = seed(jdbcUrl);
+			JwtUtil jwtUtil = new JwtUtil();
+			ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+			ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+			String token = jwtUtil.generateToken(email);
+
+			List<String> servletArgs = List.of(
+					"--spring.datasource.url=" + jdbcUrl,
+					"--spring.datasource.username=sa",
+					"--spring.datasource.password=",
+					"--spring.datasource.driver-class-name=org.h2.Driver",
+					"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+					"--spring.jpa.show-sql=false",
+					"--app.limiter.enabled=false",
+					"--app.archive.enabled=false");
+			List<String> reactiveArgs = List.of(
+					// r2dbc-h2 only takes a TCP address through its url option
+					"--spring.r2dbc.url=r2dbc:h2://localhost",
+					"--spring.r2dbc.properties.url=tcp://localhost:" + dbPort + "/mem:readers",
+					"--spring.r2dbc.username=sa",
+					"--spring.r2dbc.password=");
+
+			System.out.printf("%d readers, %d polls, one chunk per %d ms%n", READERS, POLLS, CHUNK_INTERVAL_MS);
+			System.out.printf("%-9s %8s %9s %12s %14s %9s %9s %7s%n", "stack", "threads", "db conns",
+					"peak RSS MB", "RSS MB/1000", "p50 ms", "p99 ms", "failed");
+			report("servlet", run("servlet", SERVLET_JAR, classpathJars("h2-"), servletArgs, token, jdbcUrl));
+			report("reactive", run("reactive", REACTIVE_JAR, classpathJars("h2-", "r2dbc-h2-"), reactiveArgs, token, jdbcUrl));
+		} finally {
+			h2.stop();
+		}
+	}
+
+	private Result run(String stack, Path jar, String loaderPath, List<String> appArgs, String token, String jdbcUrl)
+			throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>(List.of(
+				Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-Dloader.path=" + loaderPath,
+				"-cp", jar.toAbsolutePath().toString(),
+				LAUNCHER));
+		command.addAll(appArgs);
+		command.add("--jwt.secret=" + SECRET);
+		command.add("--logging.level.com.pollvoting=WARN");
+		command.add("--logging.level.org.springframework.security=WARN");
+		command.add("--server.port=" + port);
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(workDir.resolve(stack + ".log").toFile()).start();
+		try (Connection sampler = DriverManager.getConnection(jdbcUrl, "sa", "")) {
+			URI uri = URI.create("http://localhost:" + port + "/api/polls");
+			waitUntilUp(process, uri, token);
+			// Warm up, then take the idle baseline
+			for (int i = 0; i < 20; i++) {
+				read(uri, token, 0).join();
+			}
+			System.gc();
+			Result result = new Result();
+			result.baselineRssKb = procStatus(process, "VmRSS");
+
+			ScheduledExecutorService sampling = Executors.newSingleThreadScheduledExecutor();
+			sampling.scheduleAtFixedRate(() -> result.sample(procStatus(process, "Threads"),
+					procStatus(process, "VmRSS"), sessions(sampler)), 0, 100, TimeUnit.MILLISECONDS);
+			List<CompletableFuture<Long>> readers = new ArrayList<>();
+			for (int i = 0; i < READERS; i++) {
+				readers.add(read(uri, token, CHUNK_INTERVAL_MS));
+			}
+			long[] millis = readers.stream()
+					.mapToLong(reader -> reader.handle((elapsed, error) -> {
+						if (error != null) {
+							result.errors.merge(String.valueOf(error.getCause() != null ? error.getCause() : error), 1, Integer::sum);
+							return -1L;
+						}
+						return elapsed;
+					}).join())
+					.toArray();
+			sampling.shutdown();
+			sampling.awaitTermination(10, TimeUnit.SECONDS);
+
+			result.failed = (int) Arrays.stream(millis).filter(elapsed -> elapsed < 0).count();
+			long[] completed = Arrays.stream(millis).filter(elapsed -> elapsed >= 0).sorted().toArray();
+			assertThat(completed).as("%s: no reader finished, see %s.log", stack, stack).isNotEmpty();
+			result.p50 = completed[completed.length / 2];
+			result.p99 = completed[Math.min(completed.length - 1, completed.length * 99 / 100)];
+			return result;
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	// Reads the whole response, asking for the next chunk only chunkIntervalMs after the last one
+	private CompletableFuture<Long> read(URI uri, String token, long chunkIntervalMs) {
+		long start = System.nanoTime();
+		HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token).GET().build();
+		return http.sendAsync(request, info -> HttpResponse.BodySubscribers.fromSubscriber(new SlowReader(chunkIntervalMs)))
+				.thenApply(response -> {
+					if (response.statusCode() != 200) {
+						throw new IllegalStateException("HTTP " + response.statusCode());
+					}
+					return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				});
+	}
+
+	private void waitUntilUp(Process process, URI uri, String token) throws Exception {
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+		while (true) {
+			assertThat(process.isAlive()).as("application exited during startup").isTrue();
+			assertThat(System.nanoTime()).as("application did not start in time").isLessThan(deadline);
+			try {
+				HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri)
+						.header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.discarding());
+				assertThat(response.statusCode()).isEqualTo(200);
+				return;
+			} catch (ConnectException notListeningYet) {
+				Thread.sleep(100);
+			}
+		}
+	}
+
+	// One user, POLLS polls with four options each and some votes on the counters
+	private String seed(String jdbcUrl) throws Exception {
+		String email = "reader@example.com";
+		try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) {
+			connection.setAutoCommit(false);
+			long userId;
+			try (Statement statement = connection.createStatement()) {
+				statement.executeUpdate("INSERT INTO users (name, email, password, role, created_at) " +
+						"VALUES ('reader', '" + email + "', 'unused', 'USER', CURRENT_TIMESTAMP)", Statement.RETURN_GENERATED_KEYS);
+				userId = generatedKey(statement);
+			}
+			try (PreparedStatement poll = connection.prepareStatement("INSERT INTO polls (question, status, created_at, " +
+					"created_by, counter_shards) VALUES (?, 'OPEN', CURRENT_TIMESTAMP, ?, 1)", Statement.RETURN_GENERATED_KEYS);
+				 PreparedStatement option = connection.prepareStatement("INSERT INTO poll_options (text, poll_id) VALUES (?, ?)",
+						 Statement.RETURN_GENERATED_KEYS);
+				 PreparedStatement shard = connection.prepareStatement(
+						 "INSERT INTO option_counter_shards (option_id, shard, vote_count) VALUES (?, 0, ?)")) {
+				for (int i = 0; i < POLLS; i++) {
+					poll.setString(1, "Benchmark poll number " + i + ": which of these options do you prefer?");
+					poll.setLong(2, userId);
+					poll.executeUpdate();
+					long pollId = generatedKey(poll);
+					for (int o = 0; o < 4; o++) {
+						option.setString(1, "Option " + o + " of poll " + i);
+						option.setLong(2, pollId);
+						option.executeUpdate();
+						shard.setLong(1, generatedKey(option));
+						shard.setLong(2, ThreadLocalRandom.current().nextInt(10_000));
+						shard.executeUpdate();
+					}
+				}
+			}
+			connection.commit();
+		}
+		return email;
+	}
+
+	private static long generatedKey(Statement statement) throws Exception {
+		try (ResultSet keys = statement.getGeneratedKeys()) {
+			keys.next();
+			return keys.getLong(1);
+		}
+	}
+
+	private static void report(String stack, Result result) {
+		long peakDeltaMb = (result.peakRssKb - result.baselineRssKb) / 1024;
+		System.out.printf("%-9s %8d %9d %12d %14d %9d %9d %7d%n", stack, result.peakThreads, result.peakSessions,
+				result.peakRssKb / 1024, peakDeltaMb * 1000 / READERS, result.p50, result.p99, result.failed);
+		result.errors.forEach((error, count) -> System.out.printf("  %dx %s%n", count, error));
+	}
+
+	// Open database sessions, not counting the sampling connection itself
+	private static int sessions(Connection sampler) {
+		try (Statement statement = sampler.createStatement();
+			 ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")) {
+			count.next();
+			return count.getInt(1) - 1;
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	// A field of /proc/<pid>/status: VmRSS in kB, Threads as a count
+	private static long procStatus(Process process, String field) {
+		try {
+			return Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status")).stream()
+					.filter(line -> line.startsWith(field + ":"))
+					.map(line -> line.replaceAll("\\D", ""))
+					.mapToLong(Long::parseLong)
+					.findFirst().orElse(0);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	// Jars from the test classpath for the launched app's loader.path
+	private static String classpathJars(String... prefixes) {
+		return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+				.filter(entry -> Arrays.stream(prefixes).anyMatch(Path.of(entry).getFileName().toString()::startsWith))
+				.collect(Collectors.joining(","));
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static class Result {
+		long baselineRssKb;
+		long peakRssKb;
+		long peakThreads;
+		int peakSessions;
+		long p50;
+		long p99;
+		int failed;
+		final Map<String, Integer> errors = new ConcurrentHashMap<>();
+
+		synchronized void sample(long threads, long rssKb, int sessions) {
+			peakThreads = Math.max(peakThreads, threads);
+			peakRssKb = Math.max(peakRssKb, rssKb);
+			peakSessions = Math.max(peakSessions, sessions);
+		}
+	}
+
+	private static class SlowReader implements Flow.Subscriber<List<ByteBuffer>> {
+
+		private static final ScheduledExecutorService PACER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "slow-reader-pacer");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		private final long chunkIntervalMs;
+		private Flow.Subscription subscription;
+
+		SlowReader(long chunkIntervalMs) {
+			this.chunkIntervalMs = chunkIntervalMs;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(List<ByteBuffer> chunk) {
+			if (chunkIntervalMs == 0) {
+				subscription.request(1);
+			} else {
+				PACER.schedule(() -> subscription.request(1), chunkIntervalMs, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+		}
+
+		@Override
+		public void onComplete() {
+		}
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.pollvoting.poll_reader_app.controller;
+
+import com.pollvoting.poll_reader_app.dto.OptionResponse;
+import com.pollvoting.poll_reader_app.dto.PollResponse;
+import com.pollvoting.poll_reader_app.repository.PollReadRepository;
+import com.pollvoting.poll_voting_app.security.JwtUtil;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PollReadControllerTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private DatabaseClient db;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private PollReadRepository pollReadRepository;
+
+	private long voterId;
+	private String token;
+
+	// The schema is poll-voting-app's, so its migrations set up the test database
+	@BeforeAll
+	static void migrate() {
+		Flyway.configure()
+				.dataSource("jdbc:h2:mem:poll_reader_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "")
+				.locations("filesystem:../poll-voting-app/src/main/resources/db/migration")
+				.load()
+				.migrate();
+	}
+
+	@BeforeEach
+	void createVoter() {
+		String email = "user-" + UUID.randomUUID() + "@test.com";
+		voterId = insert("INSERT INTO users (name, email, password, role, created_at) " +
+				"VALUES ('voter', '" + email + "', 'secret', 'USER', CURRENT_TIMESTAMP)");
+		token = jwtUtil.generateToken(email);
+	}
+
+	@Test
+	void listsPollsWithSummedCountsAndTheCallersVote() {
+		long pollId = insertPoll("Tabs or spaces?", "OPEN");
+		long tabs = insertOption(pollId, "Tabs", 2, 1);
+		long spaces = insertOption(pollId, "Spaces", 1);
+		vote(spaces);
+		long ranked = insertPoll("Best editor?", "OPEN");
+		insertOption(ranked, "Vim", 0);
+		execute("UPDATE polls SET poll_type = 'RANKED_CHOICE' WHERE id = " + ranked);
+
+		List<PollResponse> polls = client.get().uri("/api/polls")
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(PollResponse.class)
+				.returnResult().getResponseBody();
+
+		PollResponse poll = polls.stream().filter(p -> p.getId() == pollId).findFirst().orElseThrow();
+		assertThat(poll.getQuestion()).isEqualTo("Tabs or spaces?");
+		assertThat(poll.getStatus()).isEqualTo("OPEN");
+		assertThat(poll.getPollType()).isEqualTo("SINGLE_CHOICE");
+		assertThat(poll.getOptions()).extracting(OptionResponse::getId).containsExactly(tabs, spaces);
+		assertThat(poll.getOptions()).extracting(OptionResponse::getVotes).containsExactly(3, 1);
+		assertThat(poll.isHasVoted()).isTrue();
+		assertThat(poll.getUserVote()).isEqualTo(spaces);
+		assertThat(polls).extracting(PollResponse::getId).isSorted();
+		assertThat(polls).filteredOn(p -> p.getId() == ranked)
+				.singleElement().extracting(PollResponse::getPollType).isEqualTo("RANKED_CHOICE");
+	}
+
+	@Test
+	void streamsNdjsonOnePollAtATime() {
+		long first = insertPoll("First?", "OPEN");
+		insertOption(first, "A", 0);
+		long second = insertPoll("Second?", "CLOSED");
+		insertOption(second, "B", 4);
+
+		Flux<PollResponse> stream = client.get().uri("/api/polls")
+				.header("Authorization", "Bearer " + token)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(PollResponse.class).getResponseBody();
+		assertThat(stream.map(PollResponse::getId).collectList().block()).contains(first, second);
+
+		// Rows are only read as polls are requested
+		StepVerifier.create(pollReadRepository.findPolls(voterId), 1)
+				.expectNextCount(1)
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void singlePollsAndResultsFallBackToTheArchive() {
+		long pollId = insertPoll("Live?", "OPEN");
+		long yes = insertOption(pollId, "Yes", 5);
+		insertOption(pollId, "No", 2);
+		vote(yes);
+		execute("INSERT INTO archived_polls (id, question, created_at, archived_at) " +
+				"VALUES (" + (pollId + 1_000_000) + ", 'Archived?', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+		execute("INSERT INTO archived_poll_options (id, poll_id, text, vote_count) " +
+				"VALUES (" + (yes + 1_000_000) + ", " + (pollId + 1_000_000) + ", 'Maybe', 7)");
+
+		client.get().uri("/api/polls/{id}", pollId)
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.options[0].votes").isEqualTo(5)
+				.jsonPath("$.hasVoted").isEqualTo(true)
+				.jsonPath("$.userVote").isEqualTo(yes);
+		client.get().uri("/api/polls/{id}", pollId + 1_000_000)
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.status").isEqualTo("CLOSED")
+				.jsonPath("$.pollType").isEqualTo("SINGLE_CHOICE")
+				.jsonPath("$.options[0].votes").isEqualTo(7)
+				.jsonPath("$.hasVoted").isEqualTo(false);
+		client.get().uri("/api/polls/{id}/results", pollId)
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(OptionResponse.class)
+				.value(results -> assertThat(results).extracting(OptionResponse::getVotes).containsExactly(5, 2));
+		client.get().uri("/api/polls/{id}/results", -1)
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isNotFound();
+		client.get().uri("/api/polls/{id}", -1)
+				.header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void rejectsRequestsWithoutAValidToken() {
+		client.get().uri("/api/polls").exchange().expectStatus().isUnauthorized();
+		client.get().uri("/api/polls")
+				.header("Authorization", "Bearer " + token + "x")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	private long insertPoll(String question, String status) {
+		return insert("INSERT INTO polls (question, status, created_at, counter_shards) " +
+				"VALUES ('" + question + "', '" + status + "', CURRENT_TIMESTAMP, 2)");
+	}
+
+	// One counter shard per count given
+	private long insertOption(long pollId, String text, long... shardCounts) {
+		long optionId = insert("INSERT INTO poll_options (text, poll_id) VALUES ('" + text + "', " + pollId + ")");
+		for (int shard = 0; shard < shardCounts.length; shard++) {
+			execute("INSERT INTO option_counter_shards (option_id, shard, vote_count) " +
+					"VALUES (" + optionId + ", " + shard + ", " + shardCounts[shard] + ")");
+		}
+		return optionId;
+	}
+
+	private void vote(long optionId) {
+		execute("INSERT INTO user_votes (user_id, option_id) VALUES (" + voterId + ", " + optionId + ")");
+	}
+
+	private long insert(String sql) {
+		return db.sql(sql)
+				.filter(statement -> statement.returnGeneratedValues("id"))
+				.map(row -> row.get(0, Long.class))
+				.first()
+				.block();
+	}
+
+	private void execute(String sql) {
+		db.sql(sql).then().block();
+	}
+
+}
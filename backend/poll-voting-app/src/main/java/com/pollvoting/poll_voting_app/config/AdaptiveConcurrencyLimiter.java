@@ -0,0 +1,122 @@
+package com.pollvoting.poll_voting_app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of API requests in flight, adjusting the cap from observed
+ * latency (a gradient limiter in the style of Netflix concurrency-limits).
+ *
+ * Two moving averages of request latency are kept: a short one for "now" and a
+ * long one as the no-load baseline. While latency stays within
+ * {@code tolerance} of the baseline the limit grows by about sqrt(limit) per
+ * sample; once queueing pushes latency up the limit is scaled down by
+ * baseline / current. Failed requests cut the limit multiplicatively (AIMD).
+ *
+ * Each priority may only use its share of the limit, so bulk reads are turned
+ * away first and votes and logins keep the headroom.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        CRITICAL, NORMAL, BULK
+    }
+
+    // Long-term average over roughly the last 600 samples
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double normalShare;
+    private final double bulkShare;
+    private final double smoothing;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(@Value("${app.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${app.limiter.min-limit:4}") int minLimit,
+                                      @Value("${app.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${app.limiter.normal-share:0.8}") double normalShare,
+                                      @Value("${app.limiter.bulk-share:0.5}") double bulkShare,
+                                      @Value("${app.limiter.smoothing:0.2}") double smoothing,
+                                      @Value("${app.limiter.tolerance:1.5}") double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.normalShare = normalShare;
+        this.bulkShare = bulkShare;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    //  Take a slot if the priority's share of the limit isn't used up; false means shed the request
+    public boolean tryAcquire(Priority priority) {
+        int allowed = allowed(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    //  Give the slot back and feed the request's latency into the limit
+    public void release(long latencyNanos, boolean failed) {
+        int wasInFlight = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed) {
+                limit = clamp(limit * BACKOFF_RATIO);
+                return;
+            }
+            if (longRtt == 0) {
+                shortRtt = longRtt = latencyNanos;
+            }
+            shortRtt += (latencyNanos - shortRtt) / SHORT_WINDOW;
+            longRtt += (latencyNanos - longRtt) / LONG_WINDOW;
+            // After an overload passes let the baseline come back down quickly
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            // Only move the limit while it is actually being used
+            if (wasInFlight < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double target = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + target * smoothing);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int allowed(Priority priority) {
+        double current = limit;
+        return switch (priority) {
+            case CRITICAL -> (int) current;
+            case NORMAL -> Math.max(1, (int) (current * normalShare));
+            case BULK -> Math.max(1, (int) (current * bulkShare));
+        };
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,94 @@
+package com.pollvoting.poll_voting_app.config;
+
+import com.pollvoting.poll_voting_app.config.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits API requests through the {@link AdaptiveConcurrencyLimiter}, ahead of
+ * authentication so a shed request costs neither a thread for long nor a
+ * database lookup. Votes, ballots and logins are critical, listing and batch reads are
+ * bulk; shed requests get an immediate 503 with Retry-After.
+ *
+ * Metrics: limiter.limit, limiter.in_flight and limiter.rejected{priority}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        Gauge.builder("limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for /api requests")
+                .register(meterRegistry);
+        Gauge.builder("limiter.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("limiter.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy, please retry\",\"code\":\"OVERLOADED\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    static Priority classify(String method, String path) {
+        if ("POST".equals(method) && (path.startsWith("/api/auth/") || path.endsWith("/vote")
+                || path.equals("/api/ballots"))) {
+            return Priority.CRITICAL;
+        }
+        if (("GET".equals(method) && (path.equals("/api/polls") || path.equals("/api/polls/")))
+                || ("POST".equals(method) && path.equals("/api/polls/batch-get"))) {
+            return Priority.BULK;
+        }
+        return Priority.NORMAL;
+    }
+}
@@ -0,0 +1,109 @@
+package com.pollvoting.poll_voting_app.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fails startup when an index that a repository query depends on is missing.
+ * Indexes are matched by leading columns rather than by name, since MySQL and
+ * H2 name primary keys and unique constraints differently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("users", List.of("email"), true),
+            new ExpectedIndex("polls", List.of("status", "closes_at"), false),
+            new ExpectedIndex("polls", List.of("status", "counter_shards"), false),
+            new ExpectedIndex("polls", List.of("status", "closed_at"), false),
+            new ExpectedIndex("poll_options", List.of("poll_id"), false),
+            new ExpectedIndex("user_votes", List.of("user_id", "option_id"), true),
+            new ExpectedIndex("user_votes", List.of("option_id", "user_id"), false),
+            new ExpectedIndex("votes", List.of("poll_id", "user_id"), true),
+            new ExpectedIndex("votes", List.of("option_id"), false),
+            new ExpectedIndex("votes", List.of("user_id"), false),
+            new ExpectedIndex("votes", List.of("created_at"), false),
+            new ExpectedIndex("option_counter_shards", List.of("option_id", "shard"), true),
+            new ExpectedIndex("archived_poll_options", List.of("poll_id"), false),
+            new ExpectedIndex("archived_votes", List.of("poll_id", "user_id"), true),
+            new ExpectedIndex("poll_result_snapshots", List.of("poll_id"), true),
+            new ExpectedIndex("ranked_ballot_groups", List.of("poll_id", "ranking", "shard"), true)
+    );
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        List<ExpectedIndex> missing = findMissing(EXPECTED_INDEXES);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + missing
+                    + ". Run the Flyway migrations before starting the application.");
+        }
+        log.info("Verified {} database indexes", EXPECTED_INDEXES.size());
+    }
+
+    List<ExpectedIndex> findMissing(List<ExpectedIndex> expected) throws SQLException {
+        List<ExpectedIndex> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (ExpectedIndex index : expected) {
+                boolean found = readIndexes(metaData, connection, index.table(), index.unique()).stream()
+                        .anyMatch(columns -> startsWith(columns, index.columns()));
+                if (!found) {
+                    missing.add(index);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private List<List<String>> readIndexes(DatabaseMetaData metaData, Connection connection,
+                                           String table, boolean uniqueOnly) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        Map<String, TreeMap<Short, String>> columnsByIndex = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                tableName, uniqueOnly, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase());
+            }
+        }
+        return columnsByIndex.values().stream()
+                .map(columns -> List.copyOf(columns.values()))
+                .toList();
+    }
+
+    private boolean startsWith(List<String> columns, List<String> prefix) {
+        return columns.size() >= prefix.size() && columns.subList(0, prefix.size()).equals(prefix);
+    }
+
+    record ExpectedIndex(String table, List<String> columns, boolean unique) {
+        @Override
+        public String toString() {
+            return table + columns + (unique ? " (unique)" : "");
+        }
+    }
+}
@@ -39,6 +39,10 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/polls/**/vote").authenticated()
 
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,76 @@
+package com.pollvoting.poll_voting_app.controller;
+
+import com.pollvoting.poll_voting_app.dto.BallotRequest;
+import com.pollvoting.poll_voting_app.dto.BallotResponse;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException.Reason;
+import com.pollvoting.poll_voting_app.service.IdempotencyCache;
+import com.pollvoting.poll_voting_app.service.PollService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/ballots")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class BallotController {
+
+    private final PollService pollService;
+    private final IdempotencyCache idempotencyCache;
+
+    @Value("${app.ballots.max-votes:100}")
+    private int maxVotes;
+
+    //  Vote on several polls in one request; retries with the same Idempotency-Key get the original response back
+    @PostMapping
+    public ResponseEntity<?> submitBallot(
+            @RequestBody BallotRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication auth) {
+        if (request.getVotes() == null || request.getVotes().isEmpty() || request.getVotes().size() > maxVotes) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "votes must contain between 1 and " + maxVotes + " votes"));
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return submit(request, auth.getName());
+        }
+        return idempotencyCache.execute(
+                auth.getName() + ":" + idempotencyKey,
+                request.getMode() + ":" + request.getVotes().stream()
+                        .map(vote -> vote.getPollId() + "=" + vote.getOptionId())
+                        .collect(Collectors.joining(",")),
+                () -> submit(request, auth.getName()));
+    }
+
+    private ResponseEntity<?> submit(BallotRequest request, String userEmail) {
+        try {
+            BallotResponse response = pollService.submitBallot(request, userEmail);
+            if (response.getRejected() > 0 && request.getMode() == BallotRequest.Mode.ALL_OR_NOTHING) {
+                return ResponseEntity.status(Reason.BALLOT_REJECTED.getStatus()).body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent vote by the same user on one of the polls won the race on the votes key;
+            // the whole ballot was rolled back and can be retried
+            return ResponseEntity.status(Reason.ALREADY_VOTED.getStatus())
+                    .body(Map.of("error", "A vote on one of these polls was submitted concurrently, nothing was counted",
+                            "code", Reason.ALREADY_VOTED.name()));
+        } catch (PessimisticLockingFailureException e) {
+            // Lock wait timeout or deadlock victim (CannotAcquireLockException and friends): nothing was
+            // counted and the same ballot can simply be sent again; 5xx also keeps it out of the idempotency cache
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "These polls are busy, nothing was counted; please retry",
+                            "code", "RETRY"));
+        }
+    }
+}
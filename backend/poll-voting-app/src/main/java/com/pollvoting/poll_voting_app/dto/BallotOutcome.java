@@ -0,0 +1,17 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One per ballot vote, in request order; code and error are only set when it wasn't counted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallotOutcome {
+    private Long pollId;
+    private Long optionId;
+    private boolean accepted;
+    private String code;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BallotRequest {
+
+    public enum Mode {
+        // Every valid vote is counted, rejected ones are reported
+        PARTIAL,
+        // Either every vote is counted or none is
+        ALL_OR_NOTHING
+    }
+
+    private Mode mode = Mode.PARTIAL;
+    private List<BallotVote> votes;
+}
@@ -0,0 +1,17 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallotResponse {
+    private BallotRequest.Mode mode;
+    private int accepted;
+    private int rejected;
+    private List<BallotOutcome> outcomes;
+}
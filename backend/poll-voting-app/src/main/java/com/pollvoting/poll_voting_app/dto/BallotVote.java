@@ -0,0 +1,13 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallotVote {
+    private Long pollId;
+    private Long optionId;
+}
@@ -0,0 +1,14 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PollBatchItem {
+    private Long id;
+    private boolean found;
+    private PollResponse poll;
+}
@@ -0,0 +1,10 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PollBatchRequest {
+    private List<Long> ids;
+}
@@ -1,4 +1,5 @@
 package com.pollvoting.poll_voting_app.dto;
+import com.pollvoting.poll_voting_app.entity.PollType;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -9,4 +10,7 @@ public class PollRequest {
     private String question;
     private List<String> options;
     private LocalDateTime closesAt;
+    private Integer counterShards;
+    // Fixed when the poll is created; SINGLE_CHOICE if not given
+    private PollType pollType;
 }
\ No newline at end of file
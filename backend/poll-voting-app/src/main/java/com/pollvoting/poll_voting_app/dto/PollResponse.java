@@ -12,6 +12,7 @@ public class PollResponse {
     private Long id;
     private String question;
     private PollStatus status;
+    private PollType pollType;
     private LocalDateTime closesAt;
     private List<OptionResponse> options;
     private boolean hasVoted;
@@ -0,0 +1,12 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PollSearchResult {
+    private Long id;
+    private String question;
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedResultsResponse {
+    private Long pollId;
+    private long ballots;
+    // Option id; null while there are no ballots
+    private Long winner;
+    private List<RankedRound> rounds;
+}
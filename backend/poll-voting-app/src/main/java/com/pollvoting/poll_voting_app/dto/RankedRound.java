@@ -0,0 +1,20 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedRound {
+    private int round;
+    // The options still in the running, with this round's votes
+    private List<OptionResponse> options;
+    // Ballots with no continuing choice left
+    private long exhausted;
+    private Long eliminated;
+    private Long winner;
+}
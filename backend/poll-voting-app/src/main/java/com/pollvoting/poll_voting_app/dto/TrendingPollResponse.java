@@ -0,0 +1,14 @@
+package com.pollvoting.poll_voting_app.dto;
+
+import com.pollvoting.poll_voting_app.entity.PollStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TrendingPollResponse {
+    private Long id;
+    private String question;
+    private PollStatus status;
+    private double votesPerMinute;
+}
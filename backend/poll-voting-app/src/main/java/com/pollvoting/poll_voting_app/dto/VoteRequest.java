@@ -2,7 +2,11 @@ package com.pollvoting.poll_voting_app.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class VoteRequest {
     private Long optionId;
+    // Ranked-choice polls: option ids, most preferred first (optionId is not used)
+    private List<Long> ranking;
 }
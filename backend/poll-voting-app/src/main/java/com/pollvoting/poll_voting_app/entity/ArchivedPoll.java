@@ -0,0 +1,36 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "archived_polls")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPoll {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String question;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "closes_at")
+    private LocalDateTime closesAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,25 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "archived_poll_options")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPollOption {
+
+    @Id
+    private Long id;
+
+    @Column(name = "poll_id", nullable = false)
+    private Long pollId;
+
+    @Column(nullable = false)
+    private String text;
+
+    @Column(name = "vote_count", nullable = false)
+    private long voteCount;
+}
@@ -0,0 +1,24 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    @Id
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", nullable = false, length = 64)
+    private String lockedBy;
+}
@@ -0,0 +1,19 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "option_counter_shards")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptionCounterShard {
+
+    @EmbeddedId
+    private OptionCounterShardId id;
+
+    @Column(name = "vote_count", nullable = false)
+    private long voteCount;
+}
@@ -0,0 +1,22 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptionCounterShardId implements Serializable {
+
+    @Column(name = "option_id", nullable = false)
+    private Long optionId;
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+}
@@ -25,12 +25,22 @@ public class Poll {
     @Column(nullable = false)
     private PollStatus status = PollStatus.OPEN;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "poll_type", nullable = false)
+    private PollType pollType = PollType.SINGLE_CHOICE;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "closes_at")
     private LocalDateTime closesAt;
 
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "counter_shards", nullable = false)
+    private int counterShards = 1;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
     private User createdBy;
@@ -0,0 +1,25 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "poll_result_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PollResultSnapshot {
+
+    @Id
+    @Column(name = "poll_id")
+    private Long pollId;
+
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "frozen_at", nullable = false)
+    private LocalDateTime frozenAt;
+}
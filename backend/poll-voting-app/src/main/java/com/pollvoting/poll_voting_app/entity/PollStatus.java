@@ -1,5 +1,7 @@
 package com.pollvoting.poll_voting_app.entity;
 
 public enum PollStatus {
-    OPEN, CLOSED
+    OPEN, CLOSED,
+    // Final results already copied to the archive tables; live rows are being removed
+    ARCHIVED
 }
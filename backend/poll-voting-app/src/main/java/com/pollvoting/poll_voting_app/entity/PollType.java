@@ -0,0 +1,7 @@
+package com.pollvoting.poll_voting_app.entity;
+
+public enum PollType {
+    SINGLE_CHOICE,
+    // Voters rank the options and the winner is found by instant runoff
+    RANKED_CHOICE
+}
@@ -0,0 +1,19 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "ranked_ballot_groups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedBallotGroup {
+
+    @EmbeddedId
+    private RankedBallotGroupId id;
+
+    @Column(name = "ballot_count", nullable = false)
+    private long ballotCount;
+}
@@ -0,0 +1,26 @@
+package com.pollvoting.poll_voting_app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedBallotGroupId implements Serializable {
+
+    @Column(name = "poll_id", nullable = false)
+    private Long pollId;
+
+    // The ranked options' positions in the poll, one byte each
+    @Column(name = "ranking", nullable = false, length = 64)
+    private byte[] ranking;
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+}
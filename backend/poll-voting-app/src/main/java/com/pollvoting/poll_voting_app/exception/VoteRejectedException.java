@@ -0,0 +1,39 @@
+package com.pollvoting.poll_voting_app.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class VoteRejectedException extends RuntimeException {
+
+    public enum Reason {
+        POLL_NOT_FOUND(HttpStatus.NOT_FOUND),
+        OPTION_NOT_FOUND(HttpStatus.NOT_FOUND),
+        INVALID_OPTION(HttpStatus.BAD_REQUEST),
+        POLL_CLOSED(HttpStatus.GONE),
+        ALREADY_VOTED(HttpStatus.CONFLICT),
+        // Ballots: the poll is on the ballot more than once
+        DUPLICATE_POLL(HttpStatus.BAD_REQUEST),
+        // Ballots: a valid vote left out because another one on an all-or-nothing ballot was rejected
+        BALLOT_REJECTED(HttpStatus.UNPROCESSABLE_ENTITY),
+        // Ranked-choice polls take a ranking of their options rather than a single option
+        RANKING_REQUIRED(HttpStatus.BAD_REQUEST);
+
+        private final HttpStatus status;
+
+        Reason(HttpStatus status) {
+            this.status = status;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+    }
+
+    private final Reason reason;
+
+    public VoteRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.ArchivedPollOption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedPollOptionRepository extends JpaRepository<ArchivedPollOption, Long> {
+    List<ArchivedPollOption> findByPollIdOrderById(Long pollId);
+    List<ArchivedPollOption> findByPollIdInOrderById(Collection<Long> pollIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM archived_poll_options WHERE poll_id = :pollId", nativeQuery = true)
+    int deleteByPollId(@Param("pollId") Long pollId);
+
+    // Final counts are the summed counter shards of each live option
+    @Modifying
+    @Query(value = "INSERT INTO archived_poll_options (id, poll_id, text, vote_count) " +
+            "SELECT o.id, o.poll_id, o.text, COALESCE(SUM(s.vote_count), 0) " +
+            "FROM poll_options o LEFT JOIN option_counter_shards s ON s.option_id = o.id " +
+            "WHERE o.poll_id = :pollId GROUP BY o.id, o.poll_id, o.text", nativeQuery = true)
+    int copyFromLive(@Param("pollId") Long pollId);
+}
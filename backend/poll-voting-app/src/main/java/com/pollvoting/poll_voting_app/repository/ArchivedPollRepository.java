@@ -0,0 +1,39 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.ArchivedPoll;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedPollRepository extends JpaRepository<ArchivedPoll, Long> {
+
+    @Query(value = "SELECT option_id FROM archived_votes WHERE poll_id = :pollId AND user_id = :userId LIMIT 1",
+            nativeQuery = true)
+    Optional<Long> findVotedOptionId(@Param("pollId") Long pollId, @Param("userId") Long userId);
+
+    // (poll_id, option_id) rows for the user's votes in the given archived polls
+    @Query(value = "SELECT poll_id, option_id FROM archived_votes WHERE poll_id IN :pollIds AND user_id = :userId",
+            nativeQuery = true)
+    List<Object[]> findVotedOptionIds(@Param("userId") Long userId, @Param("pollIds") Collection<Long> pollIds);
+
+    @Query(value = "SELECT COALESCE(MAX(user_id), 0) FROM archived_votes WHERE poll_id = :pollId",
+            nativeQuery = true)
+    long findLastArchivedVoterId(@Param("pollId") Long pollId);
+
+    // Next chunk of the poll's votes, in user id order so an interrupted copy can resume
+    @Modifying
+    @Query(value = "INSERT INTO archived_votes (poll_id, user_id, option_id) " +
+            "SELECT o.poll_id, uv.user_id, uv.option_id FROM user_votes uv " +
+            "JOIN poll_options o ON o.id = uv.option_id " +
+            "WHERE o.poll_id = :pollId AND uv.user_id > :afterUserId " +
+            "ORDER BY uv.user_id LIMIT :limit", nativeQuery = true)
+    int copyVoteChunk(@Param("pollId") Long pollId, @Param("afterUserId") long afterUserId,
+                      @Param("limit") int limit);
+}
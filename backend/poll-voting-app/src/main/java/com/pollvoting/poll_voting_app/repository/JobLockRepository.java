@@ -0,0 +1,32 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // 1 if the job was free (or already ours) and is now held by owner until the given time
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until, l.lockedBy = :owner " +
+            "WHERE l.name = :name AND (l.lockedUntil < :now OR l.lockedBy = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // 1 if owner still holds the job and now holds it until the given time; 0 once it lapsed or was taken
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until " +
+            "WHERE l.name = :name AND l.lockedBy = :owner AND l.lockedUntil >= :now")
+    int renew(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.OptionCounterShard;
+import com.pollvoting.poll_voting_app.entity.OptionCounterShardId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OptionCounterShardRepository extends JpaRepository<OptionCounterShard, OptionCounterShardId> {
+
+    @Modifying
+    @Query(value = "UPDATE option_counter_shards SET vote_count = vote_count + 1 " +
+            "WHERE option_id = :optionId AND shard = :shard", nativeQuery = true)
+    int increment(@Param("optionId") Long optionId, @Param("shard") int shard);
+
+    @Modifying
+    @Query(value = "UPDATE option_counter_shards SET vote_count = vote_count + 1 " +
+            "WHERE option_id IN :optionIds AND shard = :shard", nativeQuery = true)
+    int incrementAll(@Param("optionIds") Collection<Long> optionIds, @Param("shard") int shard);
+
+    @Query("SELECT s.id.optionId FROM OptionCounterShard s WHERE s.id.optionId IN :optionIds AND s.id.shard = :shard")
+    List<Long> findOptionIdsWithShard(@Param("optionIds") Collection<Long> optionIds, @Param("shard") int shard);
+
+    @Query("SELECT s.id.optionId, SUM(s.voteCount) FROM OptionCounterShard s " +
+            "WHERE s.id.optionId IN :optionIds GROUP BY s.id.optionId")
+    List<Object[]> sumByOptionIds(@Param("optionIds") Collection<Long> optionIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OptionCounterShard s WHERE s.id.optionId IN :optionIds")
+    List<OptionCounterShard> lockByOptionIds(@Param("optionIds") Collection<Long> optionIds);
+}
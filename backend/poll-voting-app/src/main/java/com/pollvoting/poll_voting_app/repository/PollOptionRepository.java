@@ -2,8 +2,22 @@ package com.pollvoting.poll_voting_app.repository;
 
 import com.pollvoting.poll_voting_app.entity.PollOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PollOptionRepository extends JpaRepository<PollOption, Long> {
+    List<PollOption> findByPollIdInOrderById(Collection<Long> pollIds);
+
+    // (poll_id, text) rows, without loading the options
+    @Query("SELECT o.poll.id, o.text FROM PollOption o WHERE o.poll.id IN :pollIds")
+    List<Object[]> findTextsByPollIdIn(@Param("pollIds") Collection<Long> pollIds);
+
+    // (option_id, poll_id) rows, without loading the options
+    @Query("SELECT o.id, o.poll.id FROM PollOption o WHERE o.id IN :optionIds")
+    List<Object[]> findPollIdsByOptionIds(@Param("optionIds") Collection<Long> optionIds);
 }
@@ -2,14 +2,48 @@ package com.pollvoting.poll_voting_app.repository;
 
 import com.pollvoting.poll_voting_app.entity.Poll;
 import com.pollvoting.poll_voting_app.entity.PollStatus;
+import com.pollvoting.poll_voting_app.entity.PollType;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PollRepository extends JpaRepository<Poll, Long> {
     List<Poll> findByStatus(PollStatus status);
-    List<Poll> findByStatusAndClosesAtBefore(PollStatus status, LocalDateTime dateTime);
+
+    // Locked in id order, like ballots take their share locks, so the two can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Poll> findByStatusAndClosesAtBeforeOrderById(PollStatus status, LocalDateTime dateTime);
+
+    List<Poll> findByStatusAndCounterShardsGreaterThan(PollStatus status, int counterShards, Pageable pageable);
+    List<Poll> findByStatusAndPollTypeAndClosedAtBefore(PollStatus status, PollType pollType, LocalDateTime dateTime,
+                                                        Pageable pageable);
+    List<Poll> findByStatus(PollStatus status, Pageable pageable);
+
+    // (id, question, createdAt) of the next polls after the given id, for rebuilding the search index
+    @Query("SELECT p.id, p.question, p.createdAt FROM Poll p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Voters share the poll row, so closing it waits for votes in flight and blocks new ones
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM Poll p WHERE p.id = :pollId")
+    Optional<Poll> findByIdForShare(@Param("pollId") Long pollId);
+
+    // Ballots share several poll rows, always locked in id order
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM Poll p WHERE p.id IN :pollIds ORDER BY p.id")
+    List<Poll> findAllByIdForShare(@Param("pollIds") Collection<Long> pollIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Poll p WHERE p.id = :pollId")
+    Optional<Poll> findByIdForUpdate(@Param("pollId") Long pollId);
 }
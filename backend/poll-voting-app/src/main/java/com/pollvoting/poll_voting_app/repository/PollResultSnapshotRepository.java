@@ -0,0 +1,23 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.PollResultSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PollResultSnapshotRepository extends JpaRepository<PollResultSnapshot, Long> {
+
+    // (payload, frozen_at) of the poll's snapshot if it has one, without hydrating an entity
+    @Query("SELECT s.payload, s.frozenAt FROM PollResultSnapshot s WHERE s.pollId = :pollId")
+    List<Object[]> findPayload(@Param("pollId") Long pollId);
+
+    // When the poll's snapshot was written, to tell whether a cached copy is still current
+    @Query("SELECT s.frozenAt FROM PollResultSnapshot s WHERE s.pollId = :pollId")
+    Optional<LocalDateTime> findFrozenAt(@Param("pollId") Long pollId);
+}
@@ -0,0 +1,31 @@
+package com.pollvoting.poll_voting_app.repository;
+
+import com.pollvoting.poll_voting_app.entity.RankedBallotGroup;
+import com.pollvoting.poll_voting_app.entity.RankedBallotGroupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RankedBallotGroupRepository extends JpaRepository<RankedBallotGroup, RankedBallotGroupId> {
+
+    // Identical rankings share a row per counter shard
+    @Modifying
+    @Query(value = "INSERT INTO ranked_ballot_groups (poll_id, ranking, shard, ballot_count) " +
+            "VALUES (:pollId, :ranking, :shard, 1) ON DUPLICATE KEY UPDATE ballot_count = ballot_count + 1",
+            nativeQuery = true)
+    int addBallot(@Param("pollId") Long pollId, @Param("ranking") byte[] ranking, @Param("shard") int shard);
+
+    // (ranking, ballots) rows, the shards summed
+    @Query(value = "SELECT ranking, SUM(ballot_count) FROM ranked_ballot_groups " +
+            "WHERE poll_id = :pollId GROUP BY ranking", nativeQuery = true)
+    List<Object[]> sumByRanking(@Param("pollId") Long pollId);
+
+    @Query(value = "SELECT COALESCE(SUM(ballot_count), 0) FROM ranked_ballot_groups WHERE poll_id = :pollId",
+            nativeQuery = true)
+    long countBallots(@Param("pollId") Long pollId);
+}
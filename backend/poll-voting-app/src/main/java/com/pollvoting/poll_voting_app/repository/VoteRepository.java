@@ -4,12 +4,66 @@ import com.pollvoting.poll_voting_app.entity.Vote;
 import com.pollvoting.poll_voting_app.entity.Poll;
 import com.pollvoting.poll_voting_app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VoteRepository extends JpaRepository<Vote, Long> {
     boolean existsByPollAndUser(Poll poll, User user);
     Optional<Vote> findByPollAndUser(Poll poll, User user);
+
+    @Query("SELECT v.poll.id, v.createdAt FROM Vote v WHERE v.createdAt >= :since ORDER BY v.createdAt")
+    Stream<Object[]> streamPollIdsAndTimesSince(@Param("since") LocalDateTime since);
+
+    // The caller's option in a poll, found through the users.email and user_votes keys
+    @Query(value = "SELECT uv.option_id FROM users u " +
+            "JOIN user_votes uv ON uv.user_id = u.id " +
+            "JOIN poll_options o ON o.id = uv.option_id " +
+            "WHERE u.email = :email AND o.poll_id = :pollId LIMIT 1", nativeQuery = true)
+    Optional<Long> findVotedOptionId(@Param("pollId") Long pollId, @Param("email") String email);
+
+    // (poll_id, option_id) rows for the user's votes in the given polls
+    @Query(value = "SELECT o.poll_id, uv.option_id FROM user_votes uv " +
+            "JOIN poll_options o ON o.id = uv.option_id " +
+            "WHERE uv.user_id = :userId AND o.poll_id IN :pollIds", nativeQuery = true)
+    List<Object[]> findVotedOptionIds(@Param("userId") Long userId, @Param("pollIds") Collection<Long> pollIds);
+
+    // A ballot's votes: one multi-row insert per table however many options were picked.
+    // Vote ids are IDENTITY, so Hibernate could not batch these as entity inserts.
+    @Modifying
+    @Query(value = "INSERT INTO user_votes (user_id, option_id) " +
+            "SELECT :userId, o.id FROM poll_options o WHERE o.id IN :optionIds", nativeQuery = true)
+    int insertUserVotes(@Param("userId") Long userId, @Param("optionIds") Collection<Long> optionIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO votes (poll_id, option_id, user_id, created_at) " +
+            "SELECT o.poll_id, o.id, :userId, :createdAt FROM poll_options o WHERE o.id IN :optionIds", nativeQuery = true)
+    int insertVotes(@Param("userId") Long userId, @Param("optionIds") Collection<Long> optionIds,
+                    @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.poll.id = :pollId")
+    int deleteByPollId(@Param("pollId") Long pollId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_votes WHERE option_id IN " +
+            "(SELECT id FROM poll_options WHERE poll_id = :pollId)", nativeQuery = true)
+    int deleteUserVotesByPollId(@Param("pollId") Long pollId);
+
+    @Modifying
+    @Query(value = "DELETE FROM votes WHERE poll_id = :pollId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByPollId(@Param("pollId") Long pollId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_votes WHERE option_id IN " +
+            "(SELECT id FROM poll_options WHERE poll_id = :pollId) LIMIT :limit", nativeQuery = true)
+    int deleteUserVoteChunkByPollId(@Param("pollId") Long pollId, @Param("limit") int limit);
 }
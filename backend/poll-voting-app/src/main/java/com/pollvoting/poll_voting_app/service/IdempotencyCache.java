@@ -0,0 +1,134 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each {@code Idempotency-Key} so a retried request
+ * gets the original result back without being executed again. Requests that
+ * arrive while the first one with the same key is still running wait for it
+ * instead of running in parallel, up to the wait timeout; after that they get
+ * 409 and can retry later.
+ *
+ * Entries expire after the TTL and the oldest are dropped once the cache is
+ * full. Server errors (5xx) are not remembered, so those can be retried.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Insertion order, for dropping the oldest; entries already replaced or forgotten are skipped
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyCache(@Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${app.idempotency.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${app.idempotency.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Runs {@code action} once per key. {@code fingerprint} identifies the
+     * request body; reusing a key for a different request is rejected with 422.
+     */
+    public ResponseEntity<?> execute(String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        CompletableFuture<ResponseEntity<?>> ours = new CompletableFuture<>();
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(key, fingerprint, ours, now + ttlMillis);
+        Entry existing = entries.compute(key, (k, current) ->
+                current == null || current.isExpired(now) ? mine : current);
+
+        if (existing != mine) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(Map.of("error", "Idempotency-Key was already used for a different request",
+                                "code", "IDEMPOTENCY_KEY_REUSED"));
+            }
+            return replay(existing.response());
+        }
+        order.add(mine);
+        trim(now);
+
+        try {
+            ResponseEntity<?> response = action.get();
+            ours.complete(response);
+            if (response.getStatusCode().is5xxServerError()) {
+                forget(key, ours);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            ours.completeExceptionally(e);
+            forget(key, ours);
+            throw e;
+        }
+    }
+
+    private void forget(String key, CompletableFuture<ResponseEntity<?>> response) {
+        entries.computeIfPresent(key, (k, entry) -> entry.response() == response ? null : entry);
+    }
+
+    //  Drop the oldest entries while over the size bound or expired
+    private void trim(long now) {
+        Entry oldest;
+        while ((oldest = order.peek()) != null && (entries.size() > maxEntries || oldest.isExpired(now))) {
+            if (order.remove(oldest)) {
+                entries.remove(oldest.key(), oldest);
+            }
+        }
+    }
+
+    private ResponseEntity<?> replay(CompletableFuture<ResponseEntity<?>> pending) {
+        ResponseEntity<?> original;
+        try {
+            original = pending.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "A request with this Idempotency-Key is still in progress",
+                            "code", "IDEMPOTENCY_KEY_IN_PROGRESS"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(headers -> {
+                    headers.addAll(original.getHeaders());
+                    headers.set(REPLAYED_HEADER, "true");
+                })
+                .body(original.getBody());
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(String key, String fingerprint, CompletableFuture<ResponseEntity<?>> response, long expiresAt) {
+        boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.entity.ArchivedPoll;
+import com.pollvoting.poll_voting_app.entity.Poll;
+import com.pollvoting.poll_voting_app.entity.PollStatus;
+import com.pollvoting.poll_voting_app.entity.PollType;
+import com.pollvoting.poll_voting_app.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves polls that have been closed for longer than {@code app.archive.after-days}
+ * out of the live tables. Every step is its own short transaction over at most
+ * {@code app.archive.chunk-size} rows, so archiving a large poll never holds
+ * long locks on polls, poll_options, user_votes or votes:
+ *
+ * 1. copy the final option counts and then the per-user votes to the archive tables,
+ * 2. write the archived_polls row and mark the live poll ARCHIVED (reads switch over here),
+ * 3. delete the live vote rows chunk by chunk, then the poll and its options.
+ *
+ * Steps 1 and 3 are restartable, so a poll interrupted half way is picked up
+ * again on the next run. A run first takes the {@code poll-archiver} row in job_locks
+ * for {@code app.archive.lock-ttl-ms}, so only one instance archives at a time; a run
+ * that finds it held by another instance does nothing. Every step renews the lock in
+ * its own transaction, and a run whose lock lapsed or was taken over stops there.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PollArchiver {
+
+    private final PollRepository pollRepository;
+    private final ArchivedPollRepository archivedPollRepository;
+    private final ArchivedPollOptionRepository archivedPollOptionRepository;
+    private final VoteRepository voteRepository;
+    private final PollSearchIndex pollSearchIndex;
+    private final TrendingPollTracker trendingPollTracker;
+    private final PollSnapshotStore pollSnapshotStore;
+    private final RankedChoiceService rankedChoiceService;
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String LOCK_NAME = "poll-archiver";
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.after-days:30}")
+    private long afterDays;
+
+    @Value("${app.archive.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.archive.lock-ttl-ms:600000}")
+    private long lockTtlMillis;
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:300000}")
+    public void archiveClosedPolls() {
+        if (!enabled) {
+            return;
+        }
+        archiveClosedBefore(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    //  Archive a bounded batch of polls closed before the cutoff; returns how many were archived,
+    //  0 if another instance is archiving
+    public int archiveClosedBefore(LocalDateTime cutoff) {
+        if (!acquireLock()) {
+            log.debug("Another instance is archiving, skipping this run");
+            return 0;
+        }
+        try {
+            return archiveBatch(cutoff);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobLockRepository.release(LOCK_NAME, instanceId, LocalDateTime.now()));
+        }
+    }
+
+    private boolean acquireLock() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> jobLockRepository.acquire(
+                LOCK_NAME, instanceId, now, now.plusNanos(lockTtlMillis * 1_000_000))) == 1;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        int archived = 0;
+        try {
+            // Finish polls an earlier run left half way first
+            List<Long> pending = pollRepository.findByStatus(PollStatus.ARCHIVED, PageRequest.of(0, batchSize))
+                    .stream().map(Poll::getId).toList();
+            pending.forEach(this::removeLive);
+
+            // Ranked-choice polls stay live: the archive has nowhere to keep their rankings
+            List<Long> pollIds = pollRepository.findByStatusAndPollTypeAndClosedAtBefore(
+                            PollStatus.CLOSED, PollType.SINGLE_CHOICE, cutoff, PageRequest.of(0, batchSize))
+                    .stream().map(Poll::getId).toList();
+            for (Long pollId : pollIds) {
+                copyToArchive(pollId);
+                removeLive(pollId);
+                archived++;
+            }
+        } catch (LockLostException e) {
+            log.warn("Lost the {} lock, stopping this run", LOCK_NAME);
+        }
+        if (archived > 0) {
+            log.info("Archived {} closed polls", archived);
+        }
+        return archived;
+    }
+
+    // One step of a run, in a transaction that first extends this instance's hold on the lock
+    private <T> T underLock(TransactionCallback<T> step) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (jobLockRepository.renew(LOCK_NAME, instanceId, now, now.plusNanos(lockTtlMillis * 1_000_000)) == 0) {
+                throw new LockLostException();
+            }
+            return step.doInTransaction(status);
+        });
+    }
+
+    private void copyToArchive(Long pollId) {
+        underLock(status -> {
+            archivedPollOptionRepository.deleteByPollId(pollId);
+            return archivedPollOptionRepository.copyFromLive(pollId);
+        });
+
+        int copied;
+        do {
+            copied = underLock(status -> archivedPollRepository.copyVoteChunk(
+                    pollId, archivedPollRepository.findLastArchivedVoterId(pollId), chunkSize));
+        } while (copied == chunkSize);
+
+        underLock(status -> {
+            Poll poll = pollRepository.findById(pollId).orElseThrow();
+            archivedPollRepository.save(new ArchivedPoll(poll.getId(), poll.getQuestion(), poll.getCreatedAt(),
+                    poll.getClosesAt(), poll.getClosedAt(),
+                    poll.getCreatedBy() != null ? poll.getCreatedBy().getId() : null,
+                    LocalDateTime.now()));
+            poll.setStatus(PollStatus.ARCHIVED);
+            return pollRepository.save(poll);
+        });
+    }
+
+    private void removeLive(Long pollId) {
+        int deleted;
+        do {
+            deleted = underLock(status -> voteRepository.deleteUserVoteChunkByPollId(pollId, chunkSize));
+        } while (deleted == chunkSize);
+        do {
+            deleted = underLock(status -> voteRepository.deleteChunkByPollId(pollId, chunkSize));
+        } while (deleted == chunkSize);
+
+        underLock(status -> {
+            pollRepository.deleteById(pollId);
+            return null;
+        });
+        pollSearchIndex.remove(pollId);
+        trendingPollTracker.remove(pollId);
+        pollSnapshotStore.evict(pollId);
+        rankedChoiceService.evict(pollId);
+    }
+
+    private static class LockLostException extends RuntimeException {
+    }
+}
@@ -1,9 +1,22 @@
 package com.pollvoting.poll_voting_app.service;
 
+import com.pollvoting.poll_voting_app.dto.PollBatchRequest;
 import com.pollvoting.poll_voting_app.dto.PollRequest;
 import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.dto.PollSearchResult;
+import com.pollvoting.poll_voting_app.dto.RankedResultsResponse;
+import com.pollvoting.poll_voting_app.dto.TrendingPollResponse;
 import com.pollvoting.poll_voting_app.dto.VoteRequest;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException.Reason;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/polls")
 @RequiredArgsConstructor
@@ -18,6 +32,10 @@ import java.util.Map;
 public class PollController {
 
     private final PollService pollService;
+    private final IdempotencyCache idempotencyCache;
+
+    @Value("${app.polls.batch-get-max-ids:100}")
+    private int batchGetMaxIds;
 
     //  Get all polls
     @GetMapping
@@ -25,12 +43,51 @@ public class PollController {
         return ResponseEntity.ok(pollService.getAllPolls(auth.getName()));
     }
 
-    //  Get single poll by ID
+    //  Search polls as you type
+    @GetMapping("/search")
+    public ResponseEntity<List<PollSearchResult>> searchPolls(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(pollService.searchPolls(query, limit));
+    }
+
+    //  Top polls by recent vote velocity
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingPollResponse>> getTrendingPolls(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(pollService.getTrendingPolls(limit));
+    }
+
+    //  Get several polls by ID, in request order
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> getPollsByIds(@RequestBody PollBatchRequest request, Authentication auth) {
+        if (request.getIds() == null || request.getIds().isEmpty() || request.getIds().size() > batchGetMaxIds) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "ids must contain between 1 and " + batchGetMaxIds + " poll ids"));
+        }
+        return ResponseEntity.ok(pollService.getPollsByIds(request.getIds(), auth.getName()));
+    }
+
+    //  Get single poll by ID; closed polls are written straight from their frozen snapshot
     @GetMapping("/{pollId}")
-    public ResponseEntity<PollResponse> getPollById(@PathVariable Long pollId, Authentication auth) {
+    public ResponseEntity<?> getPollById(@PathVariable Long pollId, Authentication auth) {
+        byte[] snapshot = pollService.getClosedPollSnapshot(pollId, auth.getName());
+        if (snapshot != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot);
+        }
         return ResponseEntity.ok(pollService.getPollById(pollId, auth.getName()));
     }
 
+    //  Round-by-round instant-runoff results of a ranked-choice poll
+    @GetMapping("/{pollId}/ranked-results")
+    public ResponseEntity<?> getRankedResults(@PathVariable Long pollId) {
+        RankedResultsResponse results = pollService.getRankedResults(pollId);
+        if (results == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Ranked-choice poll not found"));
+        }
+        return ResponseEntity.ok(results);
+    }
+
     //  Create new poll (Admin only)
     @PostMapping
     public ResponseEntity<PollResponse> createPoll(@RequestBody PollRequest request, Authentication auth) {
@@ -54,18 +111,41 @@ public class PollController {
         return ResponseEntity.ok(pollService.closePoll(pollId, auth.getName()));
     }
 
-    //  Vote on a poll (returns updated poll info)
+    //  Vote on a poll; retries with the same Idempotency-Key get the original response back
     @PostMapping("/{pollId}/vote")
     public ResponseEntity<?> vote(
             @PathVariable Long pollId,
             @RequestBody VoteRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication auth) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return submitVote(pollId, request, auth.getName());
+        }
+        return idempotencyCache.execute(
+                auth.getName() + ":" + idempotencyKey,
+                pollId + ":" + request.getOptionId() + ":" + request.getRanking(),
+                () -> submitVote(pollId, request, auth.getName()));
+    }
+
+    private ResponseEntity<?> submitVote(Long pollId, VoteRequest request, String userEmail) {
         try {
-            pollService.vote(pollId, request, auth.getName());
+            pollService.vote(pollId, request, userEmail);
             return ResponseEntity.ok().body(Map.of("message", "Vote submitted successfully"));
+        } catch (VoteRejectedException e) {
+            return ResponseEntity.status(e.getReason().getStatus())
+                    .body(Map.of("error", e.getMessage(), "code", e.getReason().name()));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent vote by the same user won the race on the votes (poll_id, user_id) key
+            return ResponseEntity.status(Reason.ALREADY_VOTED.getStatus())
+                    .body(Map.of("error", "You have already voted on this poll", "code", Reason.ALREADY_VOTED.name()));
+        } catch (PessimisticLockingFailureException e) {
+            // Lock wait timeout or deadlock victim: nothing was counted, and a 5xx keeps the key retryable
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "This poll is busy, your vote was not counted; please retry",
+                            "code", "RETRY"));
         } catch (Exception e) {
-            System.out.println("Vote endpoint error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Vote endpoint error: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
@@ -0,0 +1,404 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.PollSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index over poll questions and option text.
+ *
+ * Tokens live in a sorted map so a partially typed word is answered by a range
+ * scan over the dictionary instead of storing every prefix. Each token maps to
+ * a sorted array of the ids of the polls containing it. Readers never lock:
+ * they work on an immutable snapshot of each posting list, and writers
+ * (create, update, delete, eviction) are serialized and publish new snapshots.
+ *
+ * A query scores at most the newest {@code app.search.max-candidates} polls
+ * matching its most selective term, and stops earlier once no older poll can make
+ * the top results. Poll ids grow with creation time, so newest-first is id order.
+ * A partially typed term only expands to its first
+ * {@code app.search.max-prefix-expansions} dictionary tokens (alphabetically).
+ * Both caps bound the work per query: polls beyond them are not found, which for
+ * broad terms means older polls and the words late in the alphabet.
+ *
+ * Once the estimated footprint (including the spare capacity of the posting
+ * arrays) exceeds the memory budget, the oldest polls are dropped from the index
+ * and simply stop showing up in search.
+ */
+@Slf4j
+@Component
+public class PollSearchIndex {
+
+    static final int MAX_QUERY_TERMS = 8;
+
+    // Rough per-entry costs of the backing structures, in bytes; posting arrays
+    // are counted separately at 8 bytes per slot, used or not
+    private static final long DOC_OVERHEAD = 160;
+    private static final long TOKEN_OVERHEAD = 144;
+
+    private final ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedPoll> polls = new ConcurrentHashMap<>();
+    private final TreeSet<Long> pollIdsOldestFirst = new TreeSet<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final long memoryBudgetBytes;
+    private final int maxCandidates;
+    private final int maxPrefixExpansions;
+    private volatile long estimatedBytes;
+
+    public PollSearchIndex(@Value("${app.search.memory-budget-mb:256}") long memoryBudgetMb,
+                           @Value("${app.search.max-candidates:2000}") int maxCandidates,
+                           @Value("${app.search.max-prefix-expansions:64}") int maxPrefixExpansions) {
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.maxCandidates = maxCandidates;
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    //  Add a poll, or replace what was indexed for it before
+    public void index(Long pollId, String question, Collection<String> options, LocalDateTime createdAt) {
+        List<String> questionTokens = tokenize(question);
+        List<String> optionTokens = options.stream()
+                .flatMap(text -> tokenize(text).stream())
+                .distinct()
+                .toList();
+        long created = createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0L;
+
+        writeLock.lock();
+        try {
+            removeLocked(pollId);
+            IndexedPoll doc = new IndexedPoll(pollId, question,
+                    canonical(questionTokens), canonical(optionTokens), created);
+            for (String token : doc.distinctTokens()) {
+                Postings ids = postings.get(token);
+                int capacity = ids.capacity();
+                ids.add(pollId);
+                estimatedBytes += 8L * (ids.capacity() - capacity);
+            }
+            polls.put(pollId, doc);
+            pollIdsOldestFirst.add(pollId);
+            estimatedBytes += DOC_OVERHEAD + 2L * (question != null ? question.length() : 0)
+                    + 8L * (doc.questionTokens().length + doc.optionTokens().length);
+            evictLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long pollId) {
+        writeLock.lock();
+        try {
+            removeLocked(pollId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            postings.clear();
+            polls.clear();
+            pollIdsOldestFirst.clear();
+            estimatedBytes = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return polls.size();
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Polls matching every query term, best first. A term matches a poll when
+     * one of its tokens starts with it; whole-word and question matches score
+     * higher than prefix and option matches, and newer polls break ties.
+     */
+    public List<PollSearchResult> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        // Drive the search from the term with the fewest postings
+        List<long[]> driver = null;
+        List<Integer> driverSizes = null;
+        long driverTotal = Long.MAX_VALUE;
+        double maxRelevance = 0;
+        for (String term : terms) {
+            maxRelevance += postings.containsKey(term) ? 3 : 2;
+            List<long[]> lists = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            long total = 0;
+            for (Postings ids : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                Postings.Snapshot snapshot = ids.snapshot;
+                lists.add(snapshot.ids());
+                sizes.add(snapshot.size());
+                total += snapshot.size();
+                if (lists.size() == maxPrefixExpansions) {
+                    break;
+                }
+            }
+            if (total == 0) {
+                return List.of();
+            }
+            if (total < driverTotal) {
+                driver = lists;
+                driverSizes = sizes;
+                driverTotal = total;
+            }
+        }
+
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        PriorityQueue<PollSearchResult> top = new PriorityQueue<>(Comparator.comparingDouble(PollSearchResult::getScore));
+        NewestFirst candidates = new NewestFirst(driver, driverSizes);
+        for (int scanned = 0; scanned < maxCandidates && candidates.hasNext(); scanned++) {
+            IndexedPoll doc = polls.get(candidates.next());
+            if (doc == null) {
+                continue;
+            }
+            // Candidates only get older from here, so a full page of perfect matches can't be beaten
+            if (top.size() == limit && top.peek().getScore() >= maxRelevance + recency(now - doc.createdAt())) {
+                break;
+            }
+            double relevance = 0;
+            for (String term : terms) {
+                double termScore = doc.score(term);
+                if (termScore == 0) {
+                    relevance = 0;
+                    break;
+                }
+                relevance += termScore;
+            }
+            if (relevance == 0) {
+                continue;
+            }
+            double score = relevance + recency(now - doc.createdAt());
+            if (top.size() < limit) {
+                top.add(new PollSearchResult(doc.id(), doc.question(), score));
+            } else if (score > top.peek().getScore()) {
+                top.poll();
+                top.add(new PollSearchResult(doc.id(), doc.question(), score));
+            }
+        }
+
+        List<PollSearchResult> results = new ArrayList<>(top);
+        results.sort(Comparator.comparingDouble(PollSearchResult::getScore).reversed());
+        return results;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    // 1.0 for a brand new poll, 0.5 after a week
+    private static double recency(long ageSeconds) {
+        return 1.0 / (1.0 + Math.max(0, ageSeconds) / (double) Duration.ofDays(7).toSeconds());
+    }
+
+    // Share one String instance per distinct token between all polls
+    private String[] canonical(List<String> tokens) {
+        String[] result = new String[tokens.size()];
+        for (int i = 0; i < result.length; i++) {
+            String token = tokens.get(i);
+            Map.Entry<String, Postings> entry = postings.ceilingEntry(token);
+            if (entry == null || !entry.getKey().equals(token)) {
+                Postings ids = new Postings();
+                postings.put(token, ids);
+                estimatedBytes += TOKEN_OVERHEAD + 2L * token.length() + 8L * ids.capacity();
+                result[i] = token;
+            } else {
+                result[i] = entry.getKey();
+            }
+        }
+        return result;
+    }
+
+    private void removeLocked(Long pollId) {
+        IndexedPoll doc = polls.remove(pollId);
+        if (doc == null) {
+            return;
+        }
+        pollIdsOldestFirst.remove(pollId);
+        estimatedBytes -= DOC_OVERHEAD + 2L * (doc.question() != null ? doc.question().length() : 0)
+                + 8L * (doc.questionTokens().length + doc.optionTokens().length);
+        for (String token : doc.distinctTokens()) {
+            Postings ids = postings.get(token);
+            int capacity = ids != null ? ids.capacity() : 0;
+            if (ids != null && ids.remove(pollId)) {
+                estimatedBytes += 8L * (ids.capacity() - capacity);
+                if (ids.snapshot.size() == 0) {
+                    postings.remove(token);
+                    estimatedBytes -= TOKEN_OVERHEAD + 2L * token.length() + 8L * ids.capacity();
+                }
+            }
+        }
+    }
+
+    private void evictLocked() {
+        int evicted = 0;
+        while (estimatedBytes > memoryBudgetBytes && !pollIdsOldestFirst.isEmpty()) {
+            removeLocked(pollIdsOldestFirst.first());
+            evicted++;
+        }
+        if (evicted > 0) {
+            log.debug("Search index over budget, evicted {} oldest polls", evicted);
+        }
+    }
+
+    /**
+     * Ascending poll ids for one token. Appending a new (largest) id writes
+     * past the end of the current snapshot in place; anything else copies.
+     */
+    private static final class Postings {
+
+        record Snapshot(long[] ids, int size) {
+        }
+
+        private volatile Snapshot snapshot = new Snapshot(new long[2], 0);
+
+        int capacity() {
+            return snapshot.ids().length;
+        }
+
+        void add(long id) {
+            Snapshot current = snapshot;
+            long[] ids = current.ids();
+            int size = current.size();
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                at = -at - 1;
+                long[] copy = new long[Math.max(ids.length, size + 1)];
+                System.arraycopy(ids, 0, copy, 0, at);
+                copy[at] = id;
+                System.arraycopy(ids, at, copy, at + 1, size - at);
+                snapshot = new Snapshot(copy, size + 1);
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 2);
+            }
+            ids[size] = id;
+            snapshot = new Snapshot(ids, size + 1);
+        }
+
+        boolean remove(long id) {
+            Snapshot current = snapshot;
+            int at = Arrays.binarySearch(current.ids(), 0, current.size(), id);
+            if (at < 0) {
+                return false;
+            }
+            long[] copy = new long[current.size() - 1 + 2];
+            System.arraycopy(current.ids(), 0, copy, 0, at);
+            System.arraycopy(current.ids(), at + 1, copy, at, current.size() - at - 1);
+            snapshot = new Snapshot(copy, current.size() - 1);
+            return true;
+        }
+    }
+
+    // k-way merge of ascending posting lists, walked from the newest id down, without duplicates
+    private static final class NewestFirst {
+
+        private final List<long[]> lists;
+        private final int[] positions;
+
+        NewestFirst(List<long[]> lists, List<Integer> sizes) {
+            this.lists = lists;
+            this.positions = new int[lists.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = sizes.get(i) - 1;
+            }
+        }
+
+        boolean hasNext() {
+            for (int position : positions) {
+                if (position >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long next() {
+            int best = -1;
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] >= 0 && (best < 0 || lists.get(i)[positions[i]] > lists.get(best)[positions[best]])) {
+                    best = i;
+                }
+            }
+            long last = lists.get(best)[positions[best]];
+            for (int i = 0; i < positions.length; i++) {
+                while (positions[i] >= 0 && lists.get(i)[positions[i]] == last) {
+                    positions[i]--;
+                }
+            }
+            return last;
+        }
+    }
+
+    private record IndexedPoll(long id, String question, String[] questionTokens, String[] optionTokens,
+                               long createdAt) {
+
+        Set<String> distinctTokens() {
+            Set<String> tokens = new HashSet<>(Arrays.asList(questionTokens));
+            tokens.addAll(Arrays.asList(optionTokens));
+            return tokens;
+        }
+
+        double score(String term) {
+            double best = 0;
+            for (String token : questionTokens) {
+                if (token.equals(term)) {
+                    return 3;
+                }
+                if (token.startsWith(term)) {
+                    best = 2;
+                }
+            }
+            for (String token : optionTokens) {
+                if (token.equals(term)) {
+                    best = Math.max(best, 1.5);
+                } else if (token.startsWith(term)) {
+                    best = Math.max(best, 1);
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -2,25 +2,57 @@ package com.pollvoting.poll_voting_app.service;
 
 import com.pollvoting.poll_voting_app.dto.*;
 import com.pollvoting.poll_voting_app.entity.*;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException.Reason;
 import com.pollvoting.poll_voting_app.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PollService {
 
+    private static final int SEARCH_REBUILD_PAGE_SIZE = 1000;
+
     private final PollRepository pollRepository;
     private final PollOptionRepository pollOptionRepository;
     private final UserRepository userRepository;
+    private final VoteCounterService voteCounterService;
+    private final PollSearchIndex pollSearchIndex;
+    private final VoteRepository voteRepository;
+    private final TrendingPollTracker trendingPollTracker;
+    private final ArchivedPollRepository archivedPollRepository;
+    private final ArchivedPollOptionRepository archivedPollOptionRepository;
+    private final PollSnapshotStore pollSnapshotStore;
+    private final RankedChoiceService rankedChoiceService;
+
+    @Value("${app.trending.rebuild-window-minutes:60}")
+    private long trendingRebuildWindowMinutes;
 
     //  1. Create a new poll (Admin only)
     @Transactional
@@ -38,6 +70,11 @@ public class PollService {
         poll.setStatus(PollStatus.OPEN);
         poll.setCreatedAt(LocalDateTime.now());
         poll.setClosesAt(request.getClosesAt());
+        poll.setCounterShards(voteCounterService.resolveShardCount(request.getCounterShards()));
+        poll.setPollType(request.getPollType() != null ? request.getPollType() : PollType.SINGLE_CHOICE);
+        if (poll.getPollType() == PollType.RANKED_CHOICE) {
+            rankedChoiceService.checkOptionCount(request.getOptions().size());
+        }
         poll.setOptions(new ArrayList<>());
 
 
@@ -53,27 +90,41 @@ public class PollService {
         }
 
         poll = pollRepository.save(poll);
+        voteCounterService.createShards(poll.getOptions(), poll.getCounterShards());
+        indexAfterCommit(poll);
         return toPollResponse(poll, user);
     }
 
     //  2. Get all polls
+    @Transactional(readOnly = true)
     public List<PollResponse> getAllPolls(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<Poll> polls = pollRepository.findAll();
+        List<Poll> polls = pollRepository.findAll().stream()
+                .filter(poll -> poll.getStatus() != PollStatus.ARCHIVED)
+                .toList();
+        Map<Long, Long> counts = voteCounterService.countsFor(polls.stream()
+                .flatMap(poll -> poll.getOptions().stream())
+                .map(PollOption::getId)
+                .toList());
         return polls.stream()
-                .map(poll -> toPollResponse(poll, user))
+                .map(poll -> toPollResponse(poll, user, counts))
                 .collect(Collectors.toList());
     }
 
     //  3. Get a single poll
+    @Transactional(readOnly = true)
     public PollResponse getPollById(Long pollId, String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Poll poll = pollRepository.findById(pollId)
-                .orElseThrow(() -> new RuntimeException("Poll not found"));
+                .filter(live -> live.getStatus() != PollStatus.ARCHIVED)
+                .orElse(null);
+        if (poll == null) {
+            return getArchivedPoll(pollId, user);
+        }
 
         return toPollResponse(poll, user);
     }
@@ -84,11 +135,11 @@ public class PollService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Poll poll = pollRepository.findById(pollId)
-                .orElseThrow(() -> new RuntimeException("Poll not found"));
+        Poll poll = pollRepository.findByIdForShare(pollId)
+                .orElseThrow(() -> new VoteRejectedException(Reason.POLL_NOT_FOUND, "Poll not found"));
 
-        if (poll.getStatus() == PollStatus.CLOSED) {
-            throw new RuntimeException("Poll is closed");
+        if (poll.getStatus() != PollStatus.OPEN) {
+            throw new VoteRejectedException(Reason.POLL_CLOSED, "Poll is closed");
         }
 
         if (user.getVotedOptions() == null) {
@@ -97,15 +148,23 @@ public class PollService {
 
         for (PollOption option : poll.getOptions()) {
             if (option.getVoters() != null && option.getVoters().contains(user)) {
-                throw new RuntimeException("You have already voted on this poll");
+                throw new VoteRejectedException(Reason.ALREADY_VOTED, "You have already voted on this poll");
             }
         }
 
-        PollOption selectedOption = pollOptionRepository.findById(request.getOptionId())
-                .orElseThrow(() -> new RuntimeException("Option not found"));
+        // A ranked ballot counts as a vote for its first choice; the whole ranking goes to the runoff tally
+        Long optionId = request.getOptionId();
+        byte[] ranking = null;
+        if (poll.getPollType() == PollType.RANKED_CHOICE) {
+            ranking = rankedChoiceService.toRanking(poll, request.getRanking());
+            optionId = request.getRanking().get(0);
+        }
+
+        PollOption selectedOption = pollOptionRepository.findById(optionId)
+                .orElseThrow(() -> new VoteRejectedException(Reason.OPTION_NOT_FOUND, "Option not found"));
 
         if (selectedOption.getPoll() == null || !selectedOption.getPoll().getId().equals(pollId)) {
-            throw new RuntimeException("Invalid option for this poll");
+            throw new VoteRejectedException(Reason.INVALID_OPTION, "Invalid option for this poll");
         }
 
         if (selectedOption.getVoters() == null) {
@@ -117,6 +176,17 @@ public class PollService {
 
         pollOptionRepository.save(selectedOption);
         userRepository.save(user);
+        voteCounterService.increment(selectedOption, poll.getCounterShards(), user.getId());
+
+        Vote vote = new Vote();
+        vote.setPoll(poll);
+        vote.setOption(selectedOption);
+        vote.setUser(user);
+        voteRepository.save(vote);
+        if (ranking != null) {
+            rankedChoiceService.record(poll, ranking, user.getId());
+        }
+        afterCommit(() -> trendingPollTracker.record(pollId, System.currentTimeMillis()));
 
         Poll updatedPoll = pollRepository.findById(pollId)
                 .orElseThrow(() -> new RuntimeException("Poll not found after voting"));
@@ -134,10 +204,21 @@ public class PollService {
             throw new RuntimeException("Only admins can update polls");
         }
 
-        Poll poll = pollRepository.findById(pollId)
+        // Locked like closePoll, so a poll the archiver has just marked ARCHIVED is seen as such
+        Poll poll = pollRepository.findByIdForUpdate(pollId)
                 .orElseThrow(() -> new RuntimeException("Poll not found"));
+        if (poll.getStatus() == PollStatus.ARCHIVED) {
+            // Its live rows are being moved to the archive and deleted
+            throw new VoteRejectedException(Reason.POLL_NOT_FOUND, "Poll is archived");
+        }
 
         poll.setQuestion(request.getQuestion());
+        if (request.getCounterShards() != null) {
+            poll.setCounterShards(voteCounterService.resolveShardCount(request.getCounterShards()));
+        }
+        if (poll.getPollType() == PollType.RANKED_CHOICE) {
+            rankedChoiceService.checkOptionCount(request.getOptions().size());
+        }
         poll.getOptions().clear();
         pollRepository.save(poll);
 
@@ -149,6 +230,12 @@ public class PollService {
         }
 
         poll = pollRepository.save(poll);
+        voteCounterService.createShards(poll.getOptions(), poll.getCounterShards());
+        indexAfterCommit(poll);
+        afterCommit(() -> rankedChoiceService.evict(pollId));
+        if (poll.getStatus() == PollStatus.CLOSED) {
+            freezeResults(poll);
+        }
         return toPollResponse(poll, user);
     }
 
@@ -162,13 +249,18 @@ public class PollService {
             throw new RuntimeException("Only admins can close polls");
         }
 
-        Poll poll = pollRepository.findById(pollId)
+        Poll poll = pollRepository.findByIdForUpdate(pollId)
                 .orElseThrow(() -> new RuntimeException("Poll not found"));
+        if (poll.getStatus() != PollStatus.OPEN) {
+            // Already closed: the results were frozen then and stay as they are
+            return toPollResponse(poll, user);
+        }
 
         poll.setStatus(PollStatus.CLOSED);
+        poll.setClosedAt(LocalDateTime.now());
         poll = pollRepository.save(poll);
 
-        return toPollResponse(poll, user);
+        return toPollResponse(poll, user, freezeResults(poll));
     }
 
     //  7. Delete poll (Admin only)
@@ -181,7 +273,15 @@ public class PollService {
             throw new RuntimeException("Only admins can delete polls");
         }
 
+        voteRepository.deleteUserVotesByPollId(pollId);
+        voteRepository.deleteByPollId(pollId);
         pollRepository.deleteById(pollId);
+        afterCommit(() -> {
+            pollSearchIndex.remove(pollId);
+            trendingPollTracker.remove(pollId);
+            pollSnapshotStore.evict(pollId);
+            rankedChoiceService.evict(pollId);
+        });
     }
 
     //  8. Automatically close expired polls
@@ -189,51 +289,354 @@ public class PollService {
     @Transactional
     public void closeExpiredPolls() {
         List<Poll> expiredPolls = pollRepository
-                .findByStatusAndClosesAtBefore(PollStatus.OPEN, LocalDateTime.now());
+                .findByStatusAndClosesAtBeforeOrderById(PollStatus.OPEN, LocalDateTime.now());
 
         expiredPolls.forEach(poll -> {
             poll.setStatus(PollStatus.CLOSED);
+            poll.setClosedAt(poll.getClosesAt());
             pollRepository.save(poll);
+            freezeResults(poll);
         });
     }
 
-    //  9. Mapper methods
-    private PollResponse toPollResponse(Poll poll, User user) {
+    //  9. Search polls by question and option text
+    public List<PollSearchResult> searchPolls(String query, int limit) {
+        return pollSearchIndex.search(query, Math.min(Math.max(limit, 1), 50));
+    }
+
+    //  10. Rebuild the search index from the database at startup. Reads just the indexed columns,
+    //  a page at a time after the last id seen, each page in its own short query: no entities
+    //  pile up in a persistence context and no transaction stays open for the whole rebuild.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        pollSearchIndex.clear();
+        long afterId = 0;
+        List<Object[]> polls;
+        do {
+            polls = pollRepository.findSearchFieldsAfter(afterId, PageRequest.ofSize(SEARCH_REBUILD_PAGE_SIZE));
+            if (polls.isEmpty()) {
+                break;
+            }
+            List<Long> pollIds = polls.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, List<String>> optionTexts = pollOptionRepository.findTextsByPollIdIn(pollIds).stream()
+                    .collect(Collectors.groupingBy(row -> (Long) row[0],
+                            Collectors.mapping(row -> (String) row[1], Collectors.toList())));
+            for (Object[] row : polls) {
+                Long pollId = (Long) row[0];
+                pollSearchIndex.index(pollId, (String) row[1], optionTexts.getOrDefault(pollId, List.of()),
+                        (LocalDateTime) row[2]);
+            }
+            afterId = pollIds.get(pollIds.size() - 1);
+        } while (polls.size() == SEARCH_REBUILD_PAGE_SIZE);
+        log.info("Search index built with {} polls", pollSearchIndex.size());
+    }
+
+    //  11. Polls with the highest recent vote velocity
+    public List<TrendingPollResponse> getTrendingPolls(int limit) {
+        List<TrendingPollTracker.Trending> trending =
+                trendingPollTracker.top(Math.min(Math.max(limit, 1), 50), System.currentTimeMillis());
+        Map<Long, Poll> polls = pollRepository.findAllById(trending.stream()
+                        .map(TrendingPollTracker.Trending::pollId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Poll::getId, poll -> poll));
+
+        return trending.stream()
+                .filter(entry -> polls.containsKey(entry.pollId()))
+                .map(entry -> {
+                    Poll poll = polls.get(entry.pollId());
+                    return new TrendingPollResponse(poll.getId(), poll.getQuestion(), poll.getStatus(),
+                            entry.votesPerMinute());
+                })
+                .collect(Collectors.toList());
+    }
+
+    //  12. Replay recent votes into the trending tracker at startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildTrendingPolls() {
+        trendingPollTracker.clear();
+        LocalDateTime since = LocalDateTime.now().minusMinutes(trendingRebuildWindowMinutes);
+        long[] replayed = {0};
+        try (Stream<Object[]> votes = voteRepository.streamPollIdsAndTimesSince(since)) {
+            votes.forEach(vote -> {
+                LocalDateTime createdAt = (LocalDateTime) vote[1];
+                trendingPollTracker.record((Long) vote[0],
+                        createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                replayed[0]++;
+            });
+        }
+        log.info("Trending tracker rebuilt from {} recent votes", replayed[0]);
+    }
+
+    //  13. Closed polls: the frozen snapshot with the caller's vote, or null while the poll is open
+    public byte[] getClosedPollSnapshot(Long pollId, String userEmail) {
+        byte[] snapshot = pollSnapshotStore.find(pollId);
+        if (snapshot == null) {
+            return null;
+        }
+        return pollSnapshotStore.withUserVote(snapshot,
+                voteRepository.findVotedOptionId(pollId, userEmail).orElse(null));
+    }
+
+    //  14. Several polls by id for dashboards, in request order; unknown ids are marked not found.
+    //  A fixed number of set-based queries however many ids are asked for.
+    @Transactional(readOnly = true)
+    public List<PollBatchItem> getPollsByIds(List<Long> pollIds, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Set<Long> ids = pollIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, PollResponse> found = new HashMap<>();
+
+        List<Poll> polls = pollRepository.findAllById(ids).stream()
+                .filter(poll -> poll.getStatus() != PollStatus.ARCHIVED)
+                .toList();
+        if (!polls.isEmpty()) {
+            List<Long> livePollIds = polls.stream().map(Poll::getId).toList();
+            Map<Long, List<PollOption>> options = pollOptionRepository.findByPollIdInOrderById(livePollIds).stream()
+                    .collect(Collectors.groupingBy(option -> option.getPoll().getId()));
+            Map<Long, Long> counts = voteCounterService.countsFor(options.values().stream()
+                    .flatMap(List::stream)
+                    .map(PollOption::getId)
+                    .toList());
+            Map<Long, Long> userVotes = toPollOptionMap(voteRepository.findVotedOptionIds(user.getId(), livePollIds));
+            for (Poll poll : polls) {
+                found.put(poll.getId(), toPollResponse(poll, options.getOrDefault(poll.getId(), List.of()),
+                        counts, userVotes.get(poll.getId())));
+            }
+        }
+
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<ArchivedPoll> archived = archivedPollRepository.findAllById(missing);
+            if (!archived.isEmpty()) {
+                List<Long> archivedIds = archived.stream().map(ArchivedPoll::getId).toList();
+                Map<Long, List<ArchivedPollOption>> options = archivedPollOptionRepository
+                        .findByPollIdInOrderById(archivedIds).stream()
+                        .collect(Collectors.groupingBy(ArchivedPollOption::getPollId));
+                Map<Long, Long> userVotes = toPollOptionMap(
+                        archivedPollRepository.findVotedOptionIds(user.getId(), archivedIds));
+                for (ArchivedPoll poll : archived) {
+                    found.put(poll.getId(), toArchivedPollResponse(poll,
+                            options.getOrDefault(poll.getId(), List.of()), userVotes.get(poll.getId())));
+                }
+            }
+        }
+
+        return pollIds.stream()
+                .map(id -> new PollBatchItem(id, found.containsKey(id), found.get(id)))
+                .collect(Collectors.toList());
+    }
+
+    //  15. Vote on several polls at once, one outcome per vote in request order. Validation and
+    //  writes are a fixed number of set-based statements however many votes the ballot has;
+    //  in ALL_OR_NOTHING mode a single rejection means nothing is written.
+    @Transactional
+    public BallotResponse submitBallot(BallotRequest request, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        BallotRequest.Mode mode = request.getMode() != null ? request.getMode() : BallotRequest.Mode.PARTIAL;
+        List<BallotVote> votes = request.getVotes();
+
+        Set<Long> pollIds = votes.stream().map(BallotVote::getPollId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> optionIds = votes.stream().map(BallotVote::getOptionId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Poll> polls = pollIds.isEmpty() ? Collections.emptyMap() : pollRepository.findAllByIdForShare(pollIds).stream()
+                .collect(Collectors.toMap(Poll::getId, poll -> poll));
+        Map<Long, Long> optionPolls = optionIds.isEmpty() ? Collections.emptyMap()
+                : toPollOptionMap(pollOptionRepository.findPollIdsByOptionIds(optionIds));
+        Set<Long> votedPolls = pollIds.isEmpty() ? Set.of()
+                : toPollOptionMap(voteRepository.findVotedOptionIds(user.getId(), pollIds)).keySet();
+
+        // Same checks, in the same order, as a single vote
+        Set<Long> seen = new HashSet<>();
+        List<Reason> rejections = new ArrayList<>(votes.size());
+        Map<Long, Integer> accepted = new LinkedHashMap<>();
+        for (BallotVote vote : votes) {
+            Poll poll = polls.get(vote.getPollId());
+            Reason rejection = null;
+            if (poll == null) {
+                rejection = Reason.POLL_NOT_FOUND;
+            } else if (!seen.add(poll.getId())) {
+                rejection = Reason.DUPLICATE_POLL;
+            } else if (poll.getStatus() != PollStatus.OPEN) {
+                rejection = Reason.POLL_CLOSED;
+            } else if (votedPolls.contains(poll.getId())) {
+                rejection = Reason.ALREADY_VOTED;
+            } else if (poll.getPollType() == PollType.RANKED_CHOICE) {
+                rejection = Reason.RANKING_REQUIRED;
+            } else if (!optionPolls.containsKey(vote.getOptionId())) {
+                rejection = Reason.OPTION_NOT_FOUND;
+            } else if (!optionPolls.get(vote.getOptionId()).equals(poll.getId())) {
+                rejection = Reason.INVALID_OPTION;
+            } else {
+                accepted.put(vote.getOptionId(), poll.getCounterShards());
+            }
+            rejections.add(rejection);
+        }
+
+        boolean applied = mode == BallotRequest.Mode.PARTIAL || accepted.size() == votes.size();
+        if (applied && !accepted.isEmpty()) {
+            List<Long> acceptedOptionIds = new ArrayList<>(accepted.keySet());
+            voteRepository.insertUserVotes(user.getId(), acceptedOptionIds);
+            voteRepository.insertVotes(user.getId(), acceptedOptionIds, LocalDateTime.now());
+            voteCounterService.incrementAll(accepted, user.getId());
+            List<Long> votedPollIds = acceptedOptionIds.stream().map(optionPolls::get).toList();
+            afterCommit(() -> {
+                long now = System.currentTimeMillis();
+                votedPollIds.forEach(pollId -> trendingPollTracker.record(pollId, now));
+            });
+        }
+
+        List<BallotOutcome> outcomes = new ArrayList<>(votes.size());
+        for (int i = 0; i < votes.size(); i++) {
+            BallotVote vote = votes.get(i);
+            Reason rejection = rejections.get(i) == null && !applied ? Reason.BALLOT_REJECTED : rejections.get(i);
+            outcomes.add(rejection == null
+                    ? new BallotOutcome(vote.getPollId(), vote.getOptionId(), true, null, null)
+                    : new BallotOutcome(vote.getPollId(), vote.getOptionId(), false, rejection.name(), ballotError(rejection)));
+        }
+        int acceptedCount = applied ? accepted.size() : 0;
+        return new BallotResponse(mode, acceptedCount, votes.size() - acceptedCount, outcomes);
+    }
+
+    //  16. Instant-runoff results of a ranked-choice poll, round by round; null if there is no such poll
+    public RankedResultsResponse getRankedResults(Long pollId) {
+        return rankedChoiceService.results(pollId);
+    }
+
+    // Called with the poll row locked, so no vote can still land; the counter rows are
+    // read locked as well, which sees votes committed after this transaction started
+    private Map<Long, Long> freezeResults(Poll poll) {
+        Map<Long, Long> counts = voteCounterService.lockedCountsFor(poll.getOptions().stream()
+                .map(PollOption::getId)
+                .toList());
+        pollSnapshotStore.save(toPollResponse(poll, null, counts));
+        Long pollId = poll.getId();
+        afterCommit(() -> {
+            pollSnapshotStore.evict(pollId);
+            rankedChoiceService.evict(pollId);
+        });
+        return counts;
+    }
+
+    private void indexAfterCommit(Poll poll) {
+        Long pollId = poll.getId();
+        String question = poll.getQuestion();
+        List<String> options = poll.getOptions().stream().map(PollOption::getText).toList();
+        LocalDateTime createdAt = poll.getCreatedAt();
+        afterCommit(() -> pollSearchIndex.index(pollId, question, options, createdAt));
+    }
+
+    private String ballotError(Reason reason) {
+        return switch (reason) {
+            case POLL_NOT_FOUND -> "Poll not found";
+            case OPTION_NOT_FOUND -> "Option not found";
+            case INVALID_OPTION -> "Invalid option for this poll";
+            case POLL_CLOSED -> "Poll is closed";
+            case ALREADY_VOTED -> "You have already voted on this poll";
+            case DUPLICATE_POLL -> "Poll appears more than once on the ballot";
+            case BALLOT_REJECTED -> "Not counted: another vote on the ballot was rejected";
+            case RANKING_REQUIRED -> "Ranked-choice poll: vote on it with a ranking of its options";
+        };
+    }
+
+    // In-memory structures only see changes that actually committed
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    //  17. Mapper methods
+    private PollResponse getArchivedPoll(Long pollId, User user) {
+        ArchivedPoll poll = archivedPollRepository.findById(pollId)
+                .orElseThrow(() -> new RuntimeException("Poll not found"));
+
+        return toArchivedPollResponse(poll, archivedPollOptionRepository.findByPollIdOrderById(pollId),
+                archivedPollRepository.findVotedOptionId(pollId, user.getId()).orElse(null));
+    }
+
+    private PollResponse toArchivedPollResponse(ArchivedPoll poll, List<ArchivedPollOption> options, Long userVoteId) {
         PollResponse response = new PollResponse();
         response.setId(poll.getId());
         response.setQuestion(poll.getQuestion());
-        response.setStatus(poll.getStatus());
+        response.setStatus(PollStatus.CLOSED);
+        response.setPollType(PollType.SINGLE_CHOICE);
         response.setClosesAt(poll.getClosesAt());
+        response.setOptions(options.stream()
+                .map(option -> {
+                    OptionResponse optionResponse = new OptionResponse();
+                    optionResponse.setId(option.getId());
+                    optionResponse.setText(option.getText());
+                    optionResponse.setVotes((int) option.getVoteCount());
+                    return optionResponse;
+                })
+                .collect(Collectors.toList()));
+        response.setHasVoted(userVoteId != null);
+        response.setUserVote(userVoteId);
+        return response;
+    }
 
-        List<OptionResponse> options = poll.getOptions().stream()
-                .map(this::toOptionResponse)
-                .collect(Collectors.toList());
-        response.setOptions(options);
+    private Map<Long, Long> toPollOptionMap(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                row -> ((Number) row[0]).longValue(), row -> ((Number) row[1]).longValue(), (first, second) -> first));
+    }
+
+    private PollResponse toPollResponse(Poll poll, User user) {
+        Map<Long, Long> counts = voteCounterService.countsFor(poll.getOptions().stream()
+                .map(PollOption::getId)
+                .toList());
+        return toPollResponse(poll, user, counts);
+    }
 
-        boolean hasVoted = false;
+    private PollResponse toPollResponse(Poll poll, User user, Map<Long, Long> counts) {
         Long userVoteId = null;
 
-        if (user.getVotedOptions() != null) {
+        if (user != null && user.getVotedOptions() != null) {
             for (PollOption option : poll.getOptions()) {
                 if (option.getVoters() != null && option.getVoters().contains(user)) {
-                    hasVoted = true;
                     userVoteId = option.getId();
                     break;
                 }
             }
         }
 
-        response.setHasVoted(hasVoted);
+        return toPollResponse(poll, poll.getOptions(), counts, userVoteId);
+    }
+
+    private PollResponse toPollResponse(Poll poll, List<PollOption> pollOptions, Map<Long, Long> counts,
+                                        Long userVoteId) {
+        PollResponse response = new PollResponse();
+        response.setId(poll.getId());
+        response.setQuestion(poll.getQuestion());
+        response.setStatus(poll.getStatus());
+        response.setPollType(poll.getPollType());
+        response.setClosesAt(poll.getClosesAt());
+
+        List<OptionResponse> options = pollOptions.stream()
+                .map(option -> toOptionResponse(option, counts))
+                .collect(Collectors.toList());
+        response.setOptions(options);
+
+        response.setHasVoted(userVoteId != null);
         response.setUserVote(userVoteId);
 
         return response;
     }
 
-    private OptionResponse toOptionResponse(PollOption option) {
+    private OptionResponse toOptionResponse(PollOption option, Map<Long, Long> counts) {
         OptionResponse response = new OptionResponse();
         response.setId(option.getId());
         response.setText(option.getText());
-        response.setVotes(option.getVoteCount());
+        response.setVotes(counts.getOrDefault(option.getId(), 0L).intValue());
         return response;
     }
 }
@@ -0,0 +1,159 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.PollResultSnapshot;
+import com.pollvoting.poll_voting_app.repository.PollResultSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frozen results of closed polls. A closed poll's response only differs between
+ * callers in {@code hasVoted} and {@code userVote}, so it is serialized once
+ * without them and stored in {@code poll_result_snapshots}. Reads take the
+ * cached bytes and append the caller's two fields.
+ *
+ * Cached entries are the JSON object written up to its last field, most recently
+ * read polls first, up to {@code app.snapshots.max-cached}. Polls found to have no
+ * snapshot (still open) are remembered as well, for {@code app.snapshots.open-recheck-ms},
+ * so reads of open polls don't query for one every time. A poll closed on another
+ * instance within that window is served from its live rows, which hold the same results.
+ *
+ * Another instance may also re-freeze a poll (an edit while closed) or delete it, and
+ * only evicts its own cache. So a cached snapshot older than {@code app.snapshots.recheck-ms}
+ * is checked against the stored {@code frozen_at}: reloaded if it changed, dropped if the
+ * row is gone.
+ */
+@Component
+public class PollSnapshotStore {
+
+    private static final List<String> PER_USER_FIELDS = List.of("hasVoted", "userVote");
+
+    private final PollResultSnapshotRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long openRecheckMillis;
+    private final long recheckMillis;
+    private final Map<Long, Cached> cache;
+    // Poll id -> time until which it is taken to have no snapshot
+    private final Map<Long, Long> open;
+
+    public PollSnapshotStore(PollResultSnapshotRepository repository, ObjectMapper objectMapper,
+                             @Value("${app.snapshots.max-cached:10000}") int maxCached,
+                             @Value("${app.snapshots.open-recheck-ms:10000}") long openRecheckMillis,
+                             @Value("${app.snapshots.recheck-ms:10000}") long recheckMillis) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.openRecheckMillis = openRecheckMillis;
+        this.recheckMillis = recheckMillis;
+        this.cache = lru(maxCached);
+        this.open = lru(maxCached);
+    }
+
+    //  Store the final response of a closed poll; the per-user fields are dropped
+    public void save(PollResponse response) {
+        ObjectNode json = objectMapper.valueToTree(response);
+        json.remove(PER_USER_FIELDS);
+        try {
+            repository.save(new PollResultSnapshot(response.getId(), objectMapper.writeValueAsString(json),
+                    LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize results of poll " + response.getId(), e);
+        }
+    }
+
+    //  Cached snapshot of a poll, or null when the poll has none (it is still open)
+    public byte[] find(Long pollId) {
+        long now = System.currentTimeMillis();
+        Cached cached;
+        synchronized (cache) {
+            cached = cache.get(pollId);
+            if (cached != null && cached.checkAfter() > now) {
+                return cached.snapshot();
+            }
+            Long openUntil = open.get(pollId);
+            if (cached == null && openUntil != null && openUntil > now) {
+                return null;
+            }
+        }
+        if (cached != null && repository.findFrozenAt(pollId).filter(cached.frozenAt()::equals).isPresent()) {
+            synchronized (cache) {
+                cache.put(pollId, new Cached(cached.snapshot(), cached.frozenAt(), now + recheckMillis));
+            }
+            return cached.snapshot();
+        }
+        List<Object[]> rows = repository.findPayload(pollId);
+        synchronized (cache) {
+            if (rows.isEmpty()) {
+                cache.remove(pollId);
+                open.put(pollId, now + openRecheckMillis);
+                return null;
+            }
+            byte[] snapshot = unterminated((String) rows.get(0)[0]);
+            open.remove(pollId);
+            cache.put(pollId, new Cached(snapshot, (LocalDateTime) rows.get(0)[1], now + recheckMillis));
+            return snapshot;
+        }
+    }
+
+    // The stored object re-written field by field, stopping before its closing brace
+    private byte[] unterminated(String payload) {
+        try {
+            JsonNode json = objectMapper.readTree(payload);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length());
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                for (Map.Entry<String, JsonNode> field : json.properties()) {
+                    generator.writeFieldName(field.getKey());
+                    objectMapper.writeTree(generator, field.getValue());
+                }
+                generator.flush();
+                // Closing the generator would end the object
+                return out.toByteArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stored results", e);
+        }
+    }
+
+    //  Complete a cached snapshot with the caller's vote
+    public byte[] withUserVote(byte[] snapshot, Long userVote) {
+        String tail = ",\"hasVoted\":" + (userVote != null) + ",\"userVote\":" + userVote + "}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length + tail.length());
+        out.writeBytes(snapshot);
+        out.writeBytes(tail.getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    public void evict(Long pollId) {
+        synchronized (cache) {
+            cache.remove(pollId);
+            open.remove(pollId);
+        }
+    }
+
+    // The object up to its last field, the frozen_at it was read with, and when to compare that again
+    private record Cached(byte[] snapshot, LocalDateTime frozenAt, long checkAfter) {
+    }
+
+    private static <V> Map<Long, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.OptionResponse;
+import com.pollvoting.poll_voting_app.dto.RankedResultsResponse;
+import com.pollvoting.poll_voting_app.dto.RankedRound;
+import com.pollvoting.poll_voting_app.entity.Poll;
+import com.pollvoting.poll_voting_app.entity.PollOption;
+import com.pollvoting.poll_voting_app.entity.PollStatus;
+import com.pollvoting.poll_voting_app.entity.PollType;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException.Reason;
+import com.pollvoting.poll_voting_app.repository.PollRepository;
+import com.pollvoting.poll_voting_app.repository.RankedBallotGroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ranked-choice polls. A ranked ballot is an ordinary vote for its first choice,
+ * which gives it the one-vote-per-user check, live first-preference counts and
+ * closing as they are, plus one more count on its ranking in
+ * {@code ranked_ballot_groups}, where identical rankings share a row.
+ *
+ * Each instance keeps a {@link RankedChoiceTally} per open poll, loaded from those
+ * rows on first read and then updated ballot by ballot. A ballot is applied to the
+ * tally in place just before its transaction commits, and taken back if the commit
+ * fails. Loading takes no locks, so voters never wait for it: a ballot committing
+ * while the rows are read may be missed, but never counted twice, since it is only
+ * applied to a tally that was already in place before it committed.
+ *
+ * Missed ballots, and those taken by other instances, only reach a tally through
+ * the database, so reads check its options on every read and its ballot count at
+ * most once per {@code app.ranked.reload-interval-ms}, and reload when they differ.
+ *
+ * Closed polls get no more ballots, so the first read after a close loads the final
+ * tally once more, taking in any ballots the open one missed, and keeps it: up to
+ * {@code app.ranked.max-closed-cached} polls, most recently read first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankedChoiceService {
+
+    // A ranking is stored one byte per ranked option
+    static final int MAX_RANKED_OPTIONS = 64;
+
+    private final PollRepository pollRepository;
+    private final RankedBallotGroupRepository rankedBallotGroupRepository;
+
+    @Value("${app.ranked.reload-interval-ms:1000}")
+    private long reloadIntervalMillis;
+
+    @Value("${app.ranked.max-closed-cached:1000}")
+    private int maxClosedCached;
+
+    // Open polls, kept up to date ballot by ballot
+    private final Map<Long, PollTally> tallies = new ConcurrentHashMap<>();
+    // Final tallies of closed polls, most recently read last
+    private final Map<Long, PollTally> closed = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PollTally> eldest) {
+            return size() > maxClosedCached;
+        }
+    };
+
+    // Option ids and texts by position; checkedAt is when the ballot count was last compared
+    private record PollTally(List<Long> optionIds, List<String> optionTexts, RankedChoiceTally tally,
+                             AtomicLong checkedAt) {
+    }
+
+    public void checkOptionCount(int options) {
+        if (options > MAX_RANKED_OPTIONS) {
+            throw new RuntimeException("Ranked-choice polls can have at most " + MAX_RANKED_OPTIONS + " options");
+        }
+    }
+
+    //  The ranking as the options' positions in the poll, rejected if it is empty or
+    //  names an option twice or one from another poll
+    public byte[] toRanking(Poll poll, List<Long> optionIds) {
+        if (optionIds == null || optionIds.isEmpty()) {
+            throw new VoteRejectedException(Reason.RANKING_REQUIRED, "Rank at least one option of this poll");
+        }
+        Map<Long, Integer> positions = positions(sorted(poll.getOptions()));
+        boolean[] ranked = new boolean[positions.size()];
+        byte[] ranking = new byte[optionIds.size()];
+        for (int i = 0; i < optionIds.size(); i++) {
+            Integer position = positions.get(optionIds.get(i));
+            if (position == null) {
+                throw new VoteRejectedException(Reason.INVALID_OPTION, "Invalid option for this poll");
+            }
+            if (ranked[position]) {
+                throw new VoteRejectedException(Reason.INVALID_OPTION, "Each option can only be ranked once");
+            }
+            ranked[position] = true;
+            ranking[i] = (byte) position.intValue();
+        }
+        return ranking;
+    }
+
+    //  Count a ballot's ranking; must run in the vote's transaction, with the poll share locked
+    public void record(Poll poll, byte[] ranking, Long userId) {
+        Long pollId = poll.getId();
+        rankedBallotGroupRepository.addBallot(pollId, ranking, VoteCounterService.shardFor(poll.getCounterShards(), userId));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private PollTally applied;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // A poll not loaded yet will read this ballot back once it commits
+                applied = tallies.get(pollId);
+                if (applied != null) {
+                    synchronized (applied.tally()) {
+                        applied.tally().add(ranking);
+                    }
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (applied != null && status != STATUS_COMMITTED) {
+                    synchronized (applied.tally()) {
+                        applied.tally().remove(ranking);
+                    }
+                }
+            }
+        });
+    }
+
+    //  Round-by-round results, from this instance's tally once it agrees with the database;
+    //  null unless it is a ranked-choice poll that hasn't been archived
+    @Transactional(readOnly = true)
+    public RankedResultsResponse results(Long pollId) {
+        Poll poll = pollRepository.findById(pollId)
+                .filter(live -> live.getPollType() == PollType.RANKED_CHOICE && live.getStatus() != PollStatus.ARCHIVED)
+                .orElse(null);
+        if (poll == null) {
+            evict(pollId);
+            return null;
+        }
+        if (poll.getStatus() != PollStatus.OPEN) {
+            tallies.remove(pollId);
+            return toResponse(pollId, finalTally(poll));
+        }
+        PollTally loaded = tallies.get(pollId);
+        if (loaded == null || !loaded.optionIds().equals(optionIds(poll)) || dueAndBehind(loaded, pollId)) {
+            loaded = load(poll);
+            tallies.put(pollId, loaded);
+        }
+        return toResponse(pollId, loaded);
+    }
+
+    // Loaded once after the poll closed; its options can still be edited
+    private PollTally finalTally(Poll poll) {
+        PollTally loaded;
+        synchronized (closed) {
+            loaded = closed.get(poll.getId());
+        }
+        if (loaded == null || !loaded.optionIds().equals(optionIds(poll))) {
+            loaded = load(poll);
+            synchronized (closed) {
+                closed.put(poll.getId(), loaded);
+            }
+        }
+        return loaded;
+    }
+
+    // Read the poll's rankings into a fresh tally, without locking out voters
+    private PollTally load(Poll poll) {
+        List<PollOption> options = sorted(poll.getOptions());
+        RankedChoiceTally tally = new RankedChoiceTally(options.size());
+        for (Object[] row : rankedBallotGroupRepository.sumByRanking(poll.getId())) {
+            tally.load((byte[]) row[0], ((Number) row[1]).longValue());
+        }
+        log.debug("Loaded {} ranked ballots of poll {} ({} distinct rankings)",
+                tally.ballots(), poll.getId(), tally.distinctRankings());
+        return new PollTally(options.stream().map(PollOption::getId).toList(),
+                options.stream().map(PollOption::getText).toList(), tally, new AtomicLong(System.currentTimeMillis()));
+    }
+
+    // Compare the ballot count with the database once the interval is up; one reader does it per interval
+    private boolean dueAndBehind(PollTally loaded, Long pollId) {
+        long now = System.currentTimeMillis();
+        long checkedAt = loaded.checkedAt().get();
+        if (now - checkedAt < reloadIntervalMillis || !loaded.checkedAt().compareAndSet(checkedAt, now)) {
+            return false;
+        }
+        long counted;
+        synchronized (loaded.tally()) {
+            counted = loaded.tally().ballots();
+        }
+        return counted != rankedBallotGroupRepository.countBallots(pollId);
+    }
+
+    //  Forget the poll's tally, after its options changed or it was closed, archived or deleted
+    public void evict(Long pollId) {
+        tallies.remove(pollId);
+        synchronized (closed) {
+            closed.remove(pollId);
+        }
+    }
+
+    boolean isLoaded(Long pollId) {
+        synchronized (closed) {
+            return tallies.containsKey(pollId) || closed.containsKey(pollId);
+        }
+    }
+
+    private RankedResultsResponse toResponse(Long pollId, PollTally loaded) {
+        List<Long> optionIds = loaded.optionIds();
+        RankedChoiceTally tally = loaded.tally();
+        synchronized (tally) {
+            List<RankedChoiceTally.Round> rounds = tally.rounds();
+            boolean[] out = new boolean[optionIds.size()];
+            List<RankedRound> results = new ArrayList<>(rounds.size());
+            for (int index = 0; index < rounds.size(); index++) {
+                RankedChoiceTally.Round round = rounds.get(index);
+                List<OptionResponse> standing = new ArrayList<>();
+                for (int position = 0; position < optionIds.size(); position++) {
+                    if (!out[position]) {
+                        standing.add(toOptionResponse(optionIds.get(position), loaded.optionTexts().get(position),
+                                round.votes[position]));
+                    }
+                }
+                results.add(new RankedRound(index + 1, standing, round.exhausted,
+                        optionId(optionIds, round.eliminated), optionId(optionIds, round.winner)));
+                if (round.eliminated >= 0) {
+                    out[round.eliminated] = true;
+                }
+            }
+            return new RankedResultsResponse(pollId, tally.ballots(), optionId(optionIds, tally.winner()), results);
+        }
+    }
+
+    private static OptionResponse toOptionResponse(Long optionId, String text, long votes) {
+        OptionResponse response = new OptionResponse();
+        response.setId(optionId);
+        response.setText(text);
+        response.setVotes((int) votes);
+        return response;
+    }
+
+    private static List<Long> optionIds(Poll poll) {
+        return sorted(poll.getOptions()).stream().map(PollOption::getId).toList();
+    }
+
+    private static Long optionId(List<Long> optionIds, int position) {
+        return position >= 0 ? optionIds.get(position) : null;
+    }
+
+    // Positions are taken in option id order, which is creation order
+    private static List<PollOption> sorted(List<PollOption> options) {
+        List<PollOption> sorted = new ArrayList<>(options);
+        sorted.sort(Comparator.comparing(PollOption::getId));
+        return sorted;
+    }
+
+    private static Map<Long, Integer> positions(List<PollOption> options) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < options.size(); i++) {
+            positions.put(options.get(i).getId(), i);
+        }
+        return positions;
+    }
+}
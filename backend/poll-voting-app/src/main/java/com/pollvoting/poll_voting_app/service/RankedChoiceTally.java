@@ -0,0 +1,251 @@
+package com.pollvoting.poll_voting_app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instant-runoff tally of one ranked-choice poll.
+ *
+ * A ranking is the positions of the ranked options (0 = the poll's first option),
+ * most preferred first. Ballots are kept grouped by ranking with a count per
+ * distinct ranking, so a recount costs the number of distinct rankings times
+ * the number of rounds, not the number of ballots.
+ *
+ * Each round the option with the fewest votes is eliminated and its ballots move
+ * to their next continuing choice, until one option holds a majority of the
+ * ballots still in play. A tie for last eliminates the option that had fewer
+ * votes in the latest earlier round where they differ, and failing that the later option.
+ *
+ * The rounds are kept between ballots: a new ballot adds one vote to its highest
+ * continuing choice in each round, and only when that changes a round's outcome
+ * are the rounds recounted, on the next read. Not thread-safe.
+ */
+class RankedChoiceTally {
+
+    static final class Round {
+        final long[] votes;
+        long exhausted;
+        int eliminated = -1;
+        int winner = -1;
+
+        Round(long[] votes, long exhausted) {
+            this.votes = votes;
+            this.exhausted = exhausted;
+        }
+    }
+
+    private static final class Group {
+        final byte[] ranking;
+        long count;
+
+        Group(byte[] ranking) {
+            this.ranking = ranking;
+        }
+    }
+
+    private final int options;
+    // Keyed by the ranking bytes as a Latin-1 string: one char per byte, with value equality
+    private final Map<String, Group> groupsByRanking = new HashMap<>();
+    private final List<Group> groups = new ArrayList<>();
+    private final List<Round> rounds = new ArrayList<>();
+    private long ballots;
+    private boolean stale = true;
+
+    RankedChoiceTally(int options) {
+        this.options = options;
+    }
+
+    //  Ballots read back from storage; the rounds are recounted on the next read
+    void load(byte[] ranking, long count) {
+        group(ranking).count += count;
+        ballots += count;
+        stale = true;
+    }
+
+    //  One new ballot, folded into the current rounds
+    void add(byte[] ranking) {
+        group(ranking).count++;
+        ballots++;
+        if (stale) {
+            return;
+        }
+        boolean[] out = new boolean[options];
+        for (int index = 0; index < rounds.size(); index++) {
+            Round round = rounds.get(index);
+            int at = nextContinuing(ranking, 0, out);
+            if (at >= 0) {
+                round.votes[ranking[at] & 0xFF]++;
+            } else {
+                round.exhausted++;
+            }
+            int eliminated = round.eliminated;
+            int winner = round.winner;
+            decide(index, round, out);
+            if (round.eliminated != eliminated || round.winner != winner) {
+                // The rounds after this one no longer follow from it
+                stale = true;
+                return;
+            }
+            if (eliminated < 0) {
+                return;
+            }
+            out[eliminated] = true;
+        }
+    }
+
+    //  Take back a ballot that was added but never committed
+    void remove(byte[] ranking) {
+        Group group = groupsByRanking.get(key(ranking));
+        if (group != null && group.count > 0) {
+            group.count--;
+            ballots--;
+            stale = true;
+        }
+    }
+
+    long ballots() {
+        return ballots;
+    }
+
+    int distinctRankings() {
+        return groupsByRanking.size();
+    }
+
+    List<Round> rounds() {
+        if (stale) {
+            recount();
+        }
+        return Collections.unmodifiableList(rounds);
+    }
+
+    //  The winning option's position, or -1 while there are no ballots
+    int winner() {
+        List<Round> current = rounds();
+        return current.get(current.size() - 1).winner;
+    }
+
+    private void recount() {
+        rounds.clear();
+        int size = groups.size();
+        // Each group's index into its ranking, and per option a linked list of the groups counting for it
+        int[] position = new int[size];
+        int[] next = new int[size];
+        int[] head = new int[options];
+        Arrays.fill(head, -1);
+        boolean[] out = new boolean[options];
+        long[] votes = new long[options];
+        long exhausted = 0;
+
+        for (int g = 0; g < size; g++) {
+            Group group = groups.get(g);
+            if (group.count == 0) {
+                continue;
+            }
+            int choice = group.ranking[0] & 0xFF;
+            votes[choice] += group.count;
+            next[g] = head[choice];
+            head[choice] = g;
+        }
+
+        while (true) {
+            Round round = new Round(votes.clone(), exhausted);
+            decide(rounds.size(), round, out);
+            rounds.add(round);
+            int loser = round.eliminated;
+            if (loser < 0) {
+                break;
+            }
+            out[loser] = true;
+            // Only the loser's ballots move
+            for (int g = head[loser]; g >= 0; ) {
+                int following = next[g];
+                Group group = groups.get(g);
+                int at = nextContinuing(group.ranking, position[g] + 1, out);
+                if (at >= 0) {
+                    int choice = group.ranking[at] & 0xFF;
+                    position[g] = at;
+                    votes[choice] += group.count;
+                    next[g] = head[choice];
+                    head[choice] = g;
+                } else {
+                    exhausted += group.count;
+                }
+                g = following;
+            }
+            votes[loser] = 0;
+            head[loser] = -1;
+        }
+        stale = false;
+    }
+
+    // Sets the round's winner, or the option it eliminates, from its votes and the rounds before it
+    private void decide(int index, Round round, boolean[] out) {
+        round.eliminated = -1;
+        round.winner = -1;
+        long active = 0;
+        int continuing = 0;
+        int leader = -1;
+        int loser = -1;
+        for (int option = 0; option < options; option++) {
+            if (out[option]) {
+                continue;
+            }
+            continuing++;
+            active += round.votes[option];
+            if (leader < 0 || round.votes[option] > round.votes[leader]) {
+                leader = option;
+            }
+            if (loser < 0 || eliminatedBefore(option, loser, index, round)) {
+                loser = option;
+            }
+        }
+        if (active == 0) {
+            return;
+        }
+        if (round.votes[leader] * 2 > active || continuing == 1) {
+            round.winner = leader;
+        } else {
+            round.eliminated = loser;
+        }
+    }
+
+    private boolean eliminatedBefore(int option, int other, int index, Round round) {
+        if (round.votes[option] != round.votes[other]) {
+            return round.votes[option] < round.votes[other];
+        }
+        for (int earlier = index - 1; earlier >= 0; earlier--) {
+            long[] votes = rounds.get(earlier).votes;
+            if (votes[option] != votes[other]) {
+                return votes[option] < votes[other];
+            }
+        }
+        return option > other;
+    }
+
+    private Group group(byte[] ranking) {
+        return groupsByRanking.computeIfAbsent(key(ranking), key -> {
+            Group group = new Group(ranking.clone());
+            groups.add(group);
+            return group;
+        });
+    }
+
+    // Index of the first choice at or after from that is still in the running, or -1 once exhausted
+    private static int nextContinuing(byte[] ranking, int from, boolean[] out) {
+        for (int i = from; i < ranking.length; i++) {
+            if (!out[ranking[i] & 0xFF]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String key(byte[] ranking) {
+        return new String(ranking, StandardCharsets.ISO_8859_1);
+    }
+}
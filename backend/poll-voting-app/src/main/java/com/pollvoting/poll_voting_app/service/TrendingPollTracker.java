@@ -0,0 +1,149 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Top polls by recent vote velocity, with a fixed memory footprint.
+ *
+ * Polls are split across stripes by id, each stripe a small Space-Saving
+ * summary behind its own lock, so concurrent votes only contend when they hit
+ * the same stripe. When a stripe is full, a newly voted poll replaces the
+ * weakest entry and inherits its score, which keeps heavy hitters accurate.
+ *
+ * Scores decay exponentially with the configured half-life. Rather than
+ * touching every counter on each tick, a vote at time t adds e^(lambda * (t - base))
+ * and the score is scaled back down when read ("forward decay"); the base is
+ * moved forward before the exponent can overflow.
+ */
+@Component
+public class TrendingPollTracker {
+
+    // Rebase well before e^x overflows a double (x ~ 709)
+    private static final double MAX_EXPONENT = 600;
+
+    private final Stripe[] stripes;
+    private final double lambdaPerMilli;
+
+    public TrendingPollTracker(@Value("${app.trending.stripes:16}") int stripes,
+                               @Value("${app.trending.capacity-per-stripe:64}") int capacityPerStripe,
+                               @Value("${app.trending.half-life-minutes:10}") long halfLifeMinutes) {
+        this.lambdaPerMilli = Math.log(2) / Duration.ofMinutes(halfLifeMinutes).toMillis();
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(capacityPerStripe);
+        }
+    }
+
+    public void record(long pollId, long epochMillis) {
+        stripeFor(pollId).record(pollId, epochMillis);
+    }
+
+    public void remove(long pollId) {
+        stripeFor(pollId).remove(pollId);
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * The hottest polls at {@code nowMillis}, best first. The rate is the
+     * exponentially weighted number of votes per minute.
+     */
+    public List<Trending> top(int limit, long nowMillis) {
+        PriorityQueue<Trending> best = new PriorityQueue<>(Comparator.comparingDouble(Trending::votesPerMinute));
+        for (Stripe stripe : stripes) {
+            stripe.collect(best, limit, nowMillis);
+        }
+        List<Trending> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Trending::votesPerMinute).reversed());
+        return result;
+    }
+
+    private Stripe stripeFor(long pollId) {
+        return stripes[Math.floorMod(Long.hashCode(pollId * 0x9E3779B97F4A7C15L), stripes.length)];
+    }
+
+    public record Trending(long pollId, double votesPerMinute) {
+    }
+
+    private final class Stripe {
+
+        private final int capacity;
+        private final Map<Long, double[]> weights;
+        private long baseMillis = Long.MIN_VALUE;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.weights = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void record(long pollId, long epochMillis) {
+            if (baseMillis == Long.MIN_VALUE) {
+                baseMillis = epochMillis;
+            }
+            if (lambdaPerMilli * (epochMillis - baseMillis) > MAX_EXPONENT) {
+                rebase(epochMillis);
+            }
+            double increment = Math.exp(lambdaPerMilli * (epochMillis - baseMillis));
+
+            double[] weight = weights.get(pollId);
+            if (weight == null) {
+                if (weights.size() < capacity) {
+                    weight = new double[1];
+                } else {
+                    Map.Entry<Long, double[]> weakest = null;
+                    for (Map.Entry<Long, double[]> entry : weights.entrySet()) {
+                        if (weakest == null || entry.getValue()[0] < weakest.getValue()[0]) {
+                            weakest = entry;
+                        }
+                    }
+                    weight = weights.remove(weakest.getKey());
+                }
+                weights.put(pollId, weight);
+            }
+            weight[0] += increment;
+        }
+
+        synchronized void remove(long pollId) {
+            weights.remove(pollId);
+        }
+
+        synchronized void clear() {
+            weights.clear();
+            baseMillis = Long.MIN_VALUE;
+        }
+
+        synchronized void collect(PriorityQueue<Trending> best, int limit, long nowMillis) {
+            if (weights.isEmpty()) {
+                return;
+            }
+            double scale = Math.exp(-lambdaPerMilli * (nowMillis - baseMillis));
+            // A decayed weight is a count over an effective window of 1/lambda
+            double perMinute = lambdaPerMilli * Duration.ofMinutes(1).toMillis();
+            for (Map.Entry<Long, double[]> entry : weights.entrySet()) {
+                Trending trending = new Trending(entry.getKey(), entry.getValue()[0] * scale * perMinute);
+                if (best.size() < limit) {
+                    best.add(trending);
+                } else if (trending.votesPerMinute() > best.peek().votesPerMinute()) {
+                    best.poll();
+                    best.add(trending);
+                }
+            }
+        }
+
+        private void rebase(long newBaseMillis) {
+            double scale = Math.exp(-lambdaPerMilli * (newBaseMillis - baseMillis));
+            for (double[] weight : weights.values()) {
+                weight[0] *= scale;
+            }
+            baseMillis = newBaseMillis;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.entity.*;
+import com.pollvoting.poll_voting_app.repository.OptionCounterShardRepository;
+import com.pollvoting.poll_voting_app.repository.PollRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Vote counts are kept in {@code option_counter_shards}: every option has
+ * {@link Poll#getCounterShards()} rows, a vote increments one of them and reads
+ * sum them. Spreading a hot option over K rows keeps concurrent voters from
+ * serializing on a single InnoDB row lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VoteCounterService {
+
+    static final int MAX_COUNTER_SHARDS = 64;
+
+    private final OptionCounterShardRepository shardRepository;
+    private final PollRepository pollRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.voting.default-counter-shards:4}")
+    private int defaultCounterShards;
+
+    @Value("${app.voting.compaction-batch-size:50}")
+    private int compactionBatchSize;
+
+    public int resolveShardCount(Integer requested) {
+        int shards = requested != null ? requested : defaultCounterShards;
+        if (shards < 1 || shards > MAX_COUNTER_SHARDS) {
+            throw new RuntimeException("Counter shards must be between 1 and " + MAX_COUNTER_SHARDS);
+        }
+        return shards;
+    }
+
+    //  Create the K zeroed counter rows for freshly saved options
+    @Transactional
+    public void createShards(Collection<PollOption> options, int shards) {
+        List<OptionCounterShard> rows = new ArrayList<>(options.size() * shards);
+        for (PollOption option : options) {
+            for (int shard = 0; shard < shards; shard++) {
+                rows.add(new OptionCounterShard(new OptionCounterShardId(option.getId(), shard), 0));
+            }
+        }
+        shardRepository.saveAll(rows);
+    }
+
+    //  Count one vote for the option in the shard picked by the voter's id
+    @Transactional
+    public void increment(PollOption option, int shards, Long userId) {
+        int shard = shardFor(shards, userId);
+        if (shardRepository.increment(option.getId(), shard) == 0) {
+            // Options created before sharding only have shard 0
+            incrementShardZero(option.getId());
+        }
+    }
+
+    //  Count one vote by the same voter for each option (option id -> its poll's shard count),
+    //  one UPDATE per distinct shard rather than one per option
+    @Transactional
+    public void incrementAll(Map<Long, Integer> shardsByOption, Long userId) {
+        Map<Integer, List<Long>> byShard = shardsByOption.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> shardFor(entry.getValue(), userId),
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        byShard.forEach((shard, optionIds) -> {
+            if (shardRepository.incrementAll(optionIds, shard) < optionIds.size()) {
+                // Options created before sharding only have shard 0
+                Set<Long> incremented = new HashSet<>(shardRepository.findOptionIdsWithShard(optionIds, shard));
+                optionIds.stream()
+                        .filter(optionId -> !incremented.contains(optionId))
+                        .forEach(this::incrementShardZero);
+            }
+        });
+    }
+
+    //  Summed counts for the given options; options without counters are absent
+    public Map<Long, Long> countsFor(Collection<Long> optionIds) {
+        if (optionIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return shardRepository.sumByOptionIds(optionIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> ((Number) row[1]).longValue()));
+    }
+
+    //  Counts read with the counter rows locked, so they include every committed vote
+    @Transactional
+    public Map<Long, Long> lockedCountsFor(Collection<Long> optionIds) {
+        if (optionIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return shardRepository.lockByOptionIds(optionIds).stream()
+                .collect(Collectors.toMap(row -> row.getId().getOptionId(), OptionCounterShard::getVoteCount, Long::sum));
+    }
+
+    private void incrementShardZero(Long optionId) {
+        if (shardRepository.increment(optionId, 0) == 0) {
+            shardRepository.save(new OptionCounterShard(new OptionCounterShardId(optionId, 0), 1));
+        }
+    }
+
+    static int shardFor(int shards, Long userId) {
+        return shards <= 1 ? 0 : Math.floorMod(Long.hashCode(userId) * 0x9E3779B9, shards);
+    }
+
+    //  Fold every shard of a closed poll into shard 0
+    @Transactional
+    public void compact(Poll poll) {
+        List<Long> optionIds = poll.getOptions().stream().map(PollOption::getId).toList();
+        if (!optionIds.isEmpty()) {
+            Map<Long, OptionCounterShard> shardZero = new HashMap<>();
+            Map<Long, Long> totals = new HashMap<>();
+            List<OptionCounterShard> surplus = new ArrayList<>();
+
+            for (OptionCounterShard row : shardRepository.lockByOptionIds(optionIds)) {
+                Long optionId = row.getId().getOptionId();
+                totals.merge(optionId, row.getVoteCount(), Long::sum);
+                if (row.getId().getShard() == 0) {
+                    shardZero.put(optionId, row);
+                } else {
+                    surplus.add(row);
+                }
+            }
+
+            totals.forEach((optionId, total) -> {
+                OptionCounterShard row = shardZero.computeIfAbsent(optionId,
+                        id -> new OptionCounterShard(new OptionCounterShardId(id, 0), 0));
+                row.setVoteCount(total);
+                shardRepository.save(row);
+            });
+            shardRepository.deleteAll(surplus);
+        }
+
+        poll.setCounterShards(1);
+        pollRepository.save(poll);
+    }
+
+    //  Background compaction of closed polls, a bounded batch at a time and one transaction per poll,
+    //  so each poll's counter rows are only locked while that poll is folded
+    @Scheduled(fixedDelayString = "${app.voting.compaction-interval-ms:30000}")
+    public void compactClosedPolls() {
+        List<Long> pollIds = pollRepository.findByStatusAndCounterShardsGreaterThan(
+                        PollStatus.CLOSED, 1, PageRequest.of(0, compactionBatchSize))
+                .stream().map(Poll::getId).toList();
+        for (Long pollId : pollIds) {
+            transactionTemplate.executeWithoutResult(status -> pollRepository.findById(pollId)
+                    .filter(poll -> poll.getStatus() == PollStatus.CLOSED && poll.getCounterShards() > 1)
+                    .ifPresent(this::compact));
+        }
+        if (!pollIds.isEmpty()) {
+            log.debug("Compacted counter shards for {} closed polls", pollIds.size());
+        }
+    }
+}
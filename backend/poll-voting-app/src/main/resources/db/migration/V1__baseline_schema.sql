@@ -0,0 +1,53 @@
+-- Baseline schema: the tables previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(20)  NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE polls (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    question   VARCHAR(500) NOT NULL,
+    status     VARCHAR(20)  NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    closes_at  DATETIME(6),
+    created_by BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_polls_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE poll_options (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    text    VARCHAR(255) NOT NULL,
+    poll_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_poll_options_poll FOREIGN KEY (poll_id) REFERENCES polls (id)
+);
+
+CREATE TABLE user_votes (
+    user_id   BIGINT NOT NULL,
+    option_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, option_id),
+    CONSTRAINT fk_user_votes_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_votes_option FOREIGN KEY (option_id) REFERENCES poll_options (id)
+);
+
+CREATE TABLE votes (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    poll_id    BIGINT      NOT NULL,
+    option_id  BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_votes_poll_user UNIQUE (poll_id, user_id),
+    CONSTRAINT fk_votes_poll FOREIGN KEY (poll_id) REFERENCES polls (id),
+    CONSTRAINT fk_votes_option FOREIGN KEY (option_id) REFERENCES poll_options (id),
+    CONSTRAINT fk_votes_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
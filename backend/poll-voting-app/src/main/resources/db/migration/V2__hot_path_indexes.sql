@@ -0,0 +1,14 @@
+-- Secondary indexes for every repository query. Keep SchemaIndexVerifier in sync with this file.
+
+-- PollRepository.findByStatus / findByStatusAndClosesAtBefore (closeExpiredPolls)
+CREATE INDEX idx_polls_status_closes_at ON polls (status, closes_at);
+
+-- Poll.options
+CREATE INDEX idx_poll_options_poll_id ON poll_options (poll_id);
+
+-- PollOption.voters: vote counts and "has this user voted" checks walk option -> user
+CREATE INDEX idx_user_votes_option_user ON user_votes (option_id, user_id);
+
+-- Vote lookups by option and by user
+CREATE INDEX idx_votes_option_id ON votes (option_id);
+CREATE INDEX idx_votes_user_id ON votes (user_id);
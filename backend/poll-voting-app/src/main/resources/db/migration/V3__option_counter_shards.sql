@@ -0,0 +1,20 @@
+-- Sharded vote counters: each option has polls.counter_shards rows, a vote increments one of them
+-- and reads sum them, so concurrent votes on a hot option don't queue on a single row lock.
+
+ALTER TABLE polls ADD COLUMN counter_shards INT NOT NULL DEFAULT 1;
+
+CREATE TABLE option_counter_shards (
+    option_id  BIGINT NOT NULL,
+    shard      INT    NOT NULL,
+    vote_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (option_id, shard),
+    CONSTRAINT fk_option_counter_shards_option FOREIGN KEY (option_id) REFERENCES poll_options (id) ON DELETE CASCADE
+);
+
+-- Seed one shard per existing option with its current count
+INSERT INTO option_counter_shards (option_id, shard, vote_count)
+SELECT o.id, 0, (SELECT COUNT(*) FROM user_votes uv WHERE uv.option_id = o.id)
+FROM poll_options o;
+
+-- CounterShardCompactor: closed polls that still have more than one shard
+CREATE INDEX idx_polls_status_counter_shards ON polls (status, counter_shards);
@@ -0,0 +1,2 @@
+-- Trending tracker warm-up reads the recent votes at startup
+CREATE INDEX idx_votes_created_at ON votes (created_at);
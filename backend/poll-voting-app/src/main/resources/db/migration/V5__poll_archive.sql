@@ -0,0 +1,36 @@
+-- Cold storage for polls that have been closed for a while. PollArchiver copies a poll's
+-- final counts and per-user votes here, then deletes the live rows in small batches.
+
+ALTER TABLE polls ADD COLUMN closed_at DATETIME(6);
+UPDATE polls SET closed_at = COALESCE(closes_at, created_at) WHERE status = 'CLOSED';
+
+-- PollArchiver: closed polls older than the archive age
+CREATE INDEX idx_polls_status_closed_at ON polls (status, closed_at);
+
+CREATE TABLE archived_polls (
+    id          BIGINT       NOT NULL,
+    question    VARCHAR(500) NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    closes_at   DATETIME(6),
+    closed_at   DATETIME(6),
+    created_by  BIGINT,
+    archived_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE archived_poll_options (
+    id         BIGINT       NOT NULL,
+    poll_id    BIGINT       NOT NULL,
+    text       VARCHAR(255) NOT NULL,
+    vote_count BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_archived_poll_options_poll_id ON archived_poll_options (poll_id);
+
+CREATE TABLE archived_votes (
+    poll_id   BIGINT NOT NULL,
+    user_id   BIGINT NOT NULL,
+    option_id BIGINT NOT NULL,
+    PRIMARY KEY (poll_id, user_id, option_id)
+);
@@ -0,0 +1,10 @@
+-- Frozen results of closed polls: the serialized response without the per-user fields,
+-- written once when the poll closes (see PollSnapshotStore).
+
+CREATE TABLE poll_result_snapshots (
+    poll_id   BIGINT      NOT NULL,
+    payload   MEDIUMTEXT  NOT NULL,
+    frozen_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (poll_id),
+    CONSTRAINT fk_poll_result_snapshots_poll FOREIGN KEY (poll_id) REFERENCES polls (id) ON DELETE CASCADE
+);
@@ -0,0 +1,14 @@
+-- Ranked-choice polls (see RankedChoiceService). A ranked ballot is also an ordinary vote for its
+-- first choice; its full ranking is counted here, where identical rankings share one row per
+-- counter shard. ranking holds the ranked options' positions in the poll, one byte each.
+
+ALTER TABLE polls ADD COLUMN poll_type VARCHAR(20) NOT NULL DEFAULT 'SINGLE_CHOICE';
+
+CREATE TABLE ranked_ballot_groups (
+    poll_id      BIGINT        NOT NULL,
+    ranking      VARBINARY(64) NOT NULL,
+    shard        INT           NOT NULL,
+    ballot_count BIGINT        NOT NULL,
+    PRIMARY KEY (poll_id, ranking, shard),
+    CONSTRAINT fk_ranked_ballot_groups_poll FOREIGN KEY (poll_id) REFERENCES polls (id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+-- Databases baselined from the old ddl-auto=update setup got ENUM columns for the Java
+-- enums, e.g. status ENUM('OPEN','CLOSED'), which reject ARCHIVED and any later value.
+-- Fresh databases already have these as VARCHAR(20) (V1), so this is a no-op for them.
+ALTER TABLE polls MODIFY status VARCHAR(20) NOT NULL;
+ALTER TABLE users MODIFY role VARCHAR(20) NOT NULL;
+
+-- One row per scheduled job that must only run on one instance at a time (see JobLockRepository).
+-- An instance holds a job while locked_until is in the future; a crashed holder's lock just expires.
+CREATE TABLE job_locks (
+    name         VARCHAR(64)  NOT NULL,
+    locked_until DATETIME(6)  NOT NULL,
+    locked_by    VARCHAR(64)  NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO job_locks (name, locked_until, locked_by) VALUES ('poll-archiver', '1970-01-01 00:00:00', '');
@@ -0,0 +1,203 @@
+package com.pollvoting.poll_voting_app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Time from process launch to the first successful vote for each fast-startup variant:
+ * plain jar, AOT, AOT + CDS and, if given, a native image, all with the fast-startup profile.
+ *
+ * Needs the fast-startup build first:
+ * {@code mvn package -Pfast-startup -DskipTests}, then {@code mvn test -Pbenchmark -Dtest=StartupBenchmark}.
+ * Each run gets a fresh in-memory H2 database unless -Dbenchmark.startup.datasource-url
+ * (plus -username/-password) points all variants at a real one; the native variant
+ * (-Dbenchmark.startup.native=path/to/executable) only ships the MySQL driver, so it needs that too.
+ * Tune with -Dbenchmark.startup.runs.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+	private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 3);
+	private static final Path JAR = Path.of(System.getProperty("benchmark.startup.jar", "target/poll-voting-app-1.0.0.jar"));
+	private static final String NATIVE = System.getProperty("benchmark.startup.native");
+	private static final String DATASOURCE_URL = System.getProperty("benchmark.startup.datasource-url");
+	private static final String MAIN_CLASS = "com.pollvoting.poll_voting_app.PollVotingAppApplication";
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+	private final ObjectMapper json = new ObjectMapper();
+
+	@TempDir
+	Path workDir;
+
+	@Test
+	void timeToFirstVote() throws Exception {
+		assumeTrue(Files.exists(JAR), JAR + " not found; build it with mvn package -Pfast-startup -DskipTests");
+
+		String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+		String classpath = classpath();
+		List<String> aot = List.of("-Dspring.aot.enabled=true");
+		List<String> profile = List.of("--spring.profiles.active=fast-startup");
+		Path archive = workDir.resolve("app.jsa");
+
+		// Training run: stop after refresh and dump the loaded classes
+		List<String> training = command(java, classpath,
+				List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh", "-Dspring.aot.enabled=true"),
+				profile, freePort());
+		Process trainingRun = new ProcessBuilder(training).redirectErrorStream(true)
+				.redirectOutput(workDir.resolve("training.log").toFile()).start();
+		assertThat(trainingRun.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+		assertThat(archive).exists();
+
+		Map<String, List<String>> jvmOptions = new LinkedHashMap<>();
+		jvmOptions.put("jar", List.of());
+		jvmOptions.put("aot", aot);
+		jvmOptions.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive));
+
+		System.out.printf("%-14s %10s %10s%n", "variant", "best ms", "median ms");
+		for (Map.Entry<String, List<String>> variant : jvmOptions.entrySet()) {
+			report(variant.getKey(), port -> command(java, classpath, variant.getValue(), profile, port));
+		}
+		if (NATIVE != null && DATASOURCE_URL != null) {
+			report("native", port -> {
+				List<String> command = new ArrayList<>(List.of(NATIVE));
+				command.addAll(appArguments(profile, port));
+				return command;
+			});
+		}
+	}
+
+	private void report(String variant, CommandFactory commands) throws Exception {
+		long[] millis = new long[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			int port = freePort();
+			millis[run] = timeToFirstVote(variant, commands.create(port), port);
+		}
+		Arrays.sort(millis);
+		System.out.printf("%-14s %10d %10d%n", variant, millis[0], millis[RUNS / 2]);
+	}
+
+	private long timeToFirstVote(String variant, List<String> command, int port) throws Exception {
+		File log = workDir.resolve(variant + ".log").toFile();
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+		try {
+			String adminToken = signupWhenUp(port, process, "admin");
+			JsonNode poll = post(port, "/api/polls", adminToken,
+					Map.of("question", "Startup?", "options", List.of("Fast", "Slow")));
+			String voterToken = post(port, "/api/auth/signup", null,
+					Map.of("name", "voter", "email", "voter@example.com", "password", "secret")).get("token").asText();
+			post(port, "/api/polls/" + poll.get("id").asLong() + "/vote", voterToken,
+					Map.of("optionId", poll.get("options").get(0).get("id").asLong()));
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private String signupWhenUp(int port, Process process, String name) throws Exception {
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+		while (true) {
+			assertThat(process.isAlive()).as("application exited during startup").isTrue();
+			assertThat(System.nanoTime()).as("application did not start in time").isLessThan(deadline);
+			try {
+				return post(port, "/api/auth/signup", null,
+						Map.of("name", name, "email", name + "@example.com", "password", "secret")).get("token").asText();
+			} catch (ConnectException notListeningYet) {
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	private JsonNode post(int port, String path, String token, Object body) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as("%s -> %s", path, response.body()).isEqualTo(200);
+		return json.readTree(response.body());
+	}
+
+	private List<String> command(String java, String classpath, List<String> jvmOptions, List<String> args, int port) {
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		command.addAll(jvmOptions);
+		command.add("-cp");
+		command.add(classpath);
+		command.add(MAIN_CLASS);
+		command.addAll(appArguments(args, port));
+		return command;
+	}
+
+	private List<String> appArguments(List<String> args, int port) {
+		List<String> arguments = new ArrayList<>(args);
+		if (DATASOURCE_URL != null) {
+			arguments.add("--spring.datasource.url=" + DATASOURCE_URL);
+			arguments.add("--spring.datasource.username=" + System.getProperty("benchmark.startup.datasource-username", "root"));
+			arguments.add("--spring.datasource.password=" + System.getProperty("benchmark.startup.datasource-password", ""));
+		} else {
+			arguments.add("--spring.datasource.url=jdbc:h2:mem:poll_voting_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+			arguments.add("--spring.datasource.username=sa");
+			arguments.add("--spring.datasource.password=");
+			arguments.add("--spring.datasource.driver-class-name=org.h2.Driver");
+			arguments.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+		}
+		arguments.add("--spring.jpa.show-sql=false");
+		arguments.add("--logging.level.com.pollvoting=INFO");
+		arguments.add("--logging.level.org.springframework.security=INFO");
+		arguments.add("--server.port=" + port);
+		return arguments;
+	}
+
+	// The thin jar pulls in target/lib through its manifest; only H2 is added from the test classpath.
+	// Everything is a jar, as CDS requires.
+	private static String classpath() {
+		String h2 = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+				.filter(entry -> Path.of(entry).getFileName().toString().startsWith("h2-"))
+				.findFirst().orElseThrow();
+		return DATASOURCE_URL != null ? JAR.toAbsolutePath().toString()
+				: JAR.toAbsolutePath() + File.pathSeparator + h2;
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	@FunctionalInterface
+	private interface CommandFactory {
+		List<String> create(int port) throws IOException;
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.pollvoting.poll_voting_app.config;
+
+import com.pollvoting.poll_voting_app.config.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 0.8, 0.5, 0.2, 1.5);
+
+	@Test
+	void limitGrowsWhileLatencyStaysFlat() {
+		runAtLimit(50, TimeUnit.MILLISECONDS.toNanos(1));
+
+		assertThat(limiter.getLimit()).isGreaterThan(30);
+	}
+
+	@Test
+	void limitShrinksWhenLatencyRises() {
+		runAtLimit(50, TimeUnit.MILLISECONDS.toNanos(1));
+		int grown = limiter.getLimit();
+
+		runAtLimit(20, TimeUnit.MILLISECONDS.toNanos(20));
+
+		assertThat(limiter.getLimit()).isLessThan(grown / 2);
+	}
+
+	@Test
+	void failuresBackOffMultiplicatively() {
+		assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+		limiter.release(TimeUnit.MILLISECONDS.toNanos(1), true);
+
+		assertThat(limiter.getLimit()).isEqualTo(9);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void bulkRequestsOnlyGetTheirShare() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire(Priority.BULK)).isTrue();
+		}
+		assertThat(limiter.tryAcquire(Priority.BULK)).isFalse();
+		assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+		assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+		assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+		assertThat(limiter.tryAcquire(Priority.NORMAL)).isFalse();
+		assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+		assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+		assertThat(limiter.tryAcquire(Priority.CRITICAL)).isFalse();
+	}
+
+	// Fill the limit, then complete every request with the given latency
+	private void runAtLimit(int rounds, long latencyNanos) {
+		for (int round = 0; round < rounds; round++) {
+			int acquired = 0;
+			while (limiter.tryAcquire(Priority.CRITICAL)) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limiter.release(latencyNanos, false);
+			}
+		}
+	}
+
+}
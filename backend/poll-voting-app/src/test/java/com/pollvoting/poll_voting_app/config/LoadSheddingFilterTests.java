@@ -0,0 +1,130 @@
+package com.pollvoting.poll_voting_app.config;
+
+import com.pollvoting.poll_voting_app.config.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadSheddingFilterTests {
+
+	// Fixed limit of 10: bulk may hold 5 slots, votes and logins all 10
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 10, 10, 0.8, 0.5, 0.2, 1.5);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LoadSheddingFilter filter = new LoadSheddingFilter(limiter, meterRegistry);
+
+	@Test
+	void classifiesRequests() {
+		assertThat(LoadSheddingFilter.classify("POST", "/api/polls/7/vote")).isEqualTo(Priority.CRITICAL);
+		assertThat(LoadSheddingFilter.classify("POST", "/api/auth/login")).isEqualTo(Priority.CRITICAL);
+		assertThat(LoadSheddingFilter.classify("POST", "/api/ballots")).isEqualTo(Priority.CRITICAL);
+		assertThat(LoadSheddingFilter.classify("GET", "/api/polls")).isEqualTo(Priority.BULK);
+		assertThat(LoadSheddingFilter.classify("POST", "/api/polls/batch-get")).isEqualTo(Priority.BULK);
+		assertThat(LoadSheddingFilter.classify("GET", "/api/polls/7")).isEqualTo(Priority.NORMAL);
+	}
+
+	@Test
+	void saturatedBulkReadsAreShedWhileVotesGetThrough() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		FilterChain slowChain = (request, response) -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		ExecutorService pool = Executors.newFixedThreadPool(5);
+		List<Future<MockHttpServletResponse>> stuck = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			stuck.add(pool.submit(() -> send("GET", "/api/polls", slowChain)));
+		}
+		while (limiter.getInFlight() < 5) {
+			Thread.sleep(5);
+		}
+
+		long start = System.nanoTime();
+		MockHttpServletResponse shed = send("GET", "/api/polls", (request, response) -> { });
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+		assertThat(shed.getStatus()).isEqualTo(503);
+		assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(send("POST", "/api/polls/1/vote", (request, response) -> { }).getStatus()).isEqualTo(200);
+
+		release.countDown();
+		for (Future<MockHttpServletResponse> response : stuck) {
+			assertThat(response.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+		}
+		pool.shutdown();
+		assertThat(limiter.getInFlight()).isZero();
+		assertThat(meterRegistry.get("limiter.rejected").tag("priority", "bulk").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("limiter.limit").gauge().value()).isEqualTo(10);
+	}
+
+	@Test
+	void votesAreNeverShedUnderBulkOverload() throws Exception {
+		FilterChain work = (request, response) -> {
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		AtomicInteger bulkOk = new AtomicInteger();
+		AtomicInteger bulkShed = new AtomicInteger();
+		AtomicLong votesShed = new AtomicLong();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+
+		ExecutorService pool = Executors.newFixedThreadPool(45);
+		for (int t = 0; t < 40; t++) {
+			pool.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					if (send("GET", "/api/polls", work).getStatus() == 503) {
+						bulkShed.incrementAndGet();
+					} else {
+						bulkOk.incrementAndGet();
+					}
+				}
+			});
+		}
+		for (int t = 0; t < 5; t++) {
+			pool.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					if (send("POST", "/api/polls/1/vote", work).getStatus() == 503) {
+						votesShed.incrementAndGet();
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(votesShed).hasValue(0);
+		assertThat(bulkShed.get()).isPositive();
+		assertThat(bulkOk.get()).isPositive();
+	}
+
+	private MockHttpServletResponse send(String method, String path, FilterChain chain) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			filter.doFilter(request, response, chain);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return response;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.pollvoting.poll_voting_app.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaIndexVerifierTests {
+
+	@Autowired
+	private SchemaIndexVerifier verifier;
+
+	@Test
+	void migrationsCreateEveryExpectedIndex() throws Exception {
+		assertThat(verifier.findMissing(SchemaIndexVerifier.EXPECTED_INDEXES)).isEmpty();
+	}
+
+	@Test
+	void reportsIndexesThatDoNotExist() throws Exception {
+		SchemaIndexVerifier.ExpectedIndex pollsByQuestion =
+				new SchemaIndexVerifier.ExpectedIndex("polls", List.of("question"), false);
+		SchemaIndexVerifier.ExpectedIndex uniqueStatus =
+				new SchemaIndexVerifier.ExpectedIndex("polls", List.of("status"), true);
+
+		assertThat(verifier.findMissing(List.of(pollsByQuestion, uniqueStatus)))
+				.containsExactly(pollsByQuestion, uniqueStatus);
+	}
+
+}
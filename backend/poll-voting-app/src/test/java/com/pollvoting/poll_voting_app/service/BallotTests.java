@@ -0,0 +1,143 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.BallotOutcome;
+import com.pollvoting.poll_voting_app.dto.BallotRequest;
+import com.pollvoting.poll_voting_app.dto.BallotResponse;
+import com.pollvoting.poll_voting_app.dto.BallotVote;
+import com.pollvoting.poll_voting_app.dto.OptionResponse;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import com.pollvoting.poll_voting_app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.pollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@ActiveProfiles("test")
+class BallotTests {
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	private String admin;
+	private String voter;
+
+	@BeforeEach
+	void createUsers() {
+		admin = fixtures.createUser(Role.ADMIN);
+		voter = fixtures.createUser(Role.USER);
+	}
+
+	@Test
+	void partialBallotCountsValidVotesAndReportsEachRejection() {
+		PollResponse open = createPoll("Open?");
+		PollResponse other = createPoll("Other?");
+		PollResponse closed = createPoll("Closed?");
+		pollService.closePoll(closed.getId(), admin);
+		PollResponse voted = createPoll("Voted?");
+		pollService.vote(voted.getId(), voteRequest(option(voted, 0)), voter);
+		PollResponse misused = createPoll("Misused?");
+
+		BallotResponse response = pollService.submitBallot(ballot(BallotRequest.Mode.PARTIAL,
+				new BallotVote(open.getId(), option(open, 1)),
+				new BallotVote(other.getId(), option(other, 0)),
+				new BallotVote(closed.getId(), option(closed, 0)),
+				new BallotVote(voted.getId(), option(voted, 1)),
+				new BallotVote(open.getId(), option(open, 0)),
+				new BallotVote(-1L, option(open, 0)),
+				new BallotVote(misused.getId(), option(open, 0)),
+				new BallotVote(createPoll("Unknown option?").getId(), -1L)), voter);
+
+		assertThat(response.getOutcomes()).extracting(BallotOutcome::getCode).containsExactly(
+				null, null, "POLL_CLOSED", "ALREADY_VOTED", "DUPLICATE_POLL", "POLL_NOT_FOUND",
+				"INVALID_OPTION", "OPTION_NOT_FOUND");
+		assertThat(response.getAccepted()).isEqualTo(2);
+		assertThat(response.getRejected()).isEqualTo(6);
+
+		PollResponse openAfter = pollService.getPollById(open.getId(), voter);
+		assertThat(openAfter.getUserVote()).isEqualTo(option(open, 1));
+		assertThat(openAfter.getOptions()).extracting(OptionResponse::getVotes).containsExactly(0, 1);
+		assertThat(pollService.getPollById(other.getId(), voter).getOptions().get(0).getVotes()).isEqualTo(1);
+		assertThat(pollService.getPollById(voted.getId(), voter).getOptions())
+				.extracting(OptionResponse::getVotes).containsExactly(1, 0);
+		assertThat(pollService.getPollById(misused.getId(), voter).isHasVoted()).isFalse();
+
+		// Counted like a single vote: voting again on the same poll is rejected
+		BallotResponse again = pollService.submitBallot(ballot(BallotRequest.Mode.PARTIAL,
+				new BallotVote(open.getId(), option(open, 0))), voter);
+		assertThat(again.getOutcomes()).extracting(BallotOutcome::getCode).containsExactly("ALREADY_VOTED");
+	}
+
+	@Test
+	void allOrNothingBallotWritesNothingWhenAnyVoteIsRejected() {
+		PollResponse first = createPoll("First?");
+		PollResponse second = createPoll("Second?");
+		PollResponse closed = createPoll("Closed?");
+		pollService.closePoll(closed.getId(), admin);
+
+		BallotResponse rejected = pollService.submitBallot(ballot(BallotRequest.Mode.ALL_OR_NOTHING,
+				new BallotVote(first.getId(), option(first, 0)),
+				new BallotVote(closed.getId(), option(closed, 0))), voter);
+
+		assertThat(rejected.getAccepted()).isZero();
+		assertThat(rejected.getOutcomes()).extracting(BallotOutcome::getCode)
+				.containsExactly("BALLOT_REJECTED", "POLL_CLOSED");
+		assertThat(pollService.getPollById(first.getId(), voter).isHasVoted()).isFalse();
+		assertThat(pollService.getPollById(first.getId(), voter).getOptions().get(0).getVotes()).isZero();
+
+		BallotResponse accepted = pollService.submitBallot(ballot(BallotRequest.Mode.ALL_OR_NOTHING,
+				new BallotVote(first.getId(), option(first, 0)),
+				new BallotVote(second.getId(), option(second, 1))), voter);
+
+		assertThat(accepted.getAccepted()).isEqualTo(2);
+		assertThat(accepted.getOutcomes()).allMatch(BallotOutcome::isAccepted);
+		assertThat(pollService.getPollById(second.getId(), voter).getOptions().get(1).getVotes()).isEqualTo(1);
+	}
+
+	@Test
+	void statementCountDoesNotGrowWithTheBallot() {
+		List<BallotVote> votes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			PollResponse poll = createPoll("Survey question " + i + "?");
+			votes.add(new BallotVote(poll.getId(), option(poll, i % 2)));
+		}
+		String otherVoter = fixtures.createUser(Role.USER);
+
+		int forTwo = StatementCounter.count(() -> pollService.submitBallot(
+				ballot(BallotRequest.Mode.PARTIAL, votes.subList(0, 2).toArray(BallotVote[]::new)), voter));
+		int forTwenty = StatementCounter.count(() -> pollService.submitBallot(
+				ballot(BallotRequest.Mode.PARTIAL, votes.toArray(BallotVote[]::new)), otherVoter));
+
+		assertThat(forTwenty).isEqualTo(forTwo);
+		assertThat(pollService.getPollById(votes.get(19).getPollId(), voter).getOptions().get(1).getVotes()).isEqualTo(1);
+	}
+
+	private PollResponse createPoll(String question) {
+		return pollService.createPoll(pollRequest(question, "Yes", "No"), admin);
+	}
+
+	private Long option(PollResponse poll, int index) {
+		return poll.getOptions().get(index).getId();
+	}
+
+	private BallotRequest ballot(BallotRequest.Mode mode, BallotVote... votes) {
+		BallotRequest request = new BallotRequest();
+		request.setMode(mode);
+		request.setVotes(List.of(votes));
+		return request;
+	}
+
+}
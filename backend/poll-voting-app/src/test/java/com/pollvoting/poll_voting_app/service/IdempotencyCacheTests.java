@@ -0,0 +1,128 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCacheTests {
+
+	private final IdempotencyCache cache = new IdempotencyCache(100, 60, 5000);
+
+	@Test
+	void retriesGetTheOriginalResponseWithoutRunningAgain() {
+		AtomicInteger calls = new AtomicInteger();
+
+		ResponseEntity<?> first = cache.execute("user:k1", "1:2", () -> ok(calls));
+		ResponseEntity<?> retry = cache.execute("user:k1", "1:2", () -> ok(calls));
+
+		assertThat(calls).hasValue(1);
+		assertThat(retry.getStatusCode()).isEqualTo(first.getStatusCode());
+		assertThat(retry.getBody()).isEqualTo(first.getBody());
+		assertThat(retry.getHeaders().getFirst(IdempotencyCache.REPLAYED_HEADER)).isEqualTo("true");
+	}
+
+	@Test
+	void reusingAKeyForADifferentRequestIsRejected() {
+		AtomicInteger calls = new AtomicInteger();
+		cache.execute("user:k1", "1:2", () -> ok(calls));
+
+		ResponseEntity<?> other = cache.execute("user:k1", "1:3", () -> ok(calls));
+
+		assertThat(other.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void serverErrorsAreNotRemembered() {
+		AtomicInteger calls = new AtomicInteger();
+		cache.execute("user:k1", "1:2", () -> {
+			calls.incrementAndGet();
+			return ResponseEntity.internalServerError().build();
+		});
+
+		assertThat(cache.execute("user:k1", "1:2", () -> ok(calls)).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void concurrentRequestsWithTheSameKeyRunOnce() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			responses.add(pool.submit(() -> cache.execute("user:k1", "1:2", () -> {
+				calls.incrementAndGet();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return ResponseEntity.ok(Map.of("message", "done"));
+			})));
+		}
+		Thread.sleep(200);
+		release.countDown();
+
+		for (Future<ResponseEntity<?>> response : responses) {
+			assertThat(response.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+		}
+		pool.shutdown();
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void requestsWaitingTooLongForTheFirstOneGetAConflict() throws Exception {
+		IdempotencyCache impatient = new IdempotencyCache(100, 60, 50);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<ResponseEntity<?>> first = pool.submit(() -> impatient.execute("user:k1", "1:2", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return ResponseEntity.ok(Map.of("message", "done"));
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		ResponseEntity<?> retry = impatient.execute("user:k1", "1:2", () -> ResponseEntity.ok().build());
+
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(retry.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+		pool.shutdown();
+	}
+
+	@Test
+	void staysWithinItsSizeBound() {
+		AtomicInteger calls = new AtomicInteger();
+		for (int i = 0; i < 500; i++) {
+			cache.execute("user:k" + i, "1:2", () -> ok(calls));
+		}
+
+		assertThat(cache.size()).isEqualTo(100);
+		cache.execute("user:k0", "1:2", () -> ok(calls));
+		assertThat(calls).hasValue(501);
+	}
+
+	private ResponseEntity<?> ok(AtomicInteger calls) {
+		return ResponseEntity.ok(Map.of("message", "Vote submitted successfully", "call", calls.incrementAndGet()));
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.PollStatus;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.repository.JobLockRepository;
+import com.pollvoting.poll_voting_app.repository.PollRepository;
+import com.pollvoting.poll_voting_app.repository.VoteRepository;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.pollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = "app.archive.chunk-size=2")
+@ActiveProfiles("test")
+class PollArchiverTests {
+
+	@Autowired
+	private PollArchiver pollArchiver;
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollRepository pollRepository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	@Autowired
+	private JobLockRepository jobLockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@SpyBean
+	private TrendingPollTracker trendingPollTracker;
+
+	@Test
+	void closedPollsMoveToArchiveAndStayReadable() {
+		String admin = fixtures.createUser(Role.ADMIN);
+		PollResponse poll = pollService.createPoll(pollRequest("Archive me?", "Yes", "No"), admin);
+		Long yes = poll.getOptions().get(0).getId();
+		Long no = poll.getOptions().get(1).getId();
+
+		List<String> voters = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			String voter = fixtures.createUser(Role.USER);
+			voters.add(voter);
+			pollService.vote(poll.getId(), voteRequest(i < 3 ? yes : no), voter);
+		}
+		pollService.closePoll(poll.getId(), admin);
+
+		assertThat(pollArchiver.archiveClosedBefore(LocalDateTime.now().plusMinutes(1))).isGreaterThanOrEqualTo(1);
+
+		assertThat(pollRepository.findById(poll.getId())).isEmpty();
+		assertThat(voteRepository.findAll()).noneMatch(vote -> vote.getPoll().getId().equals(poll.getId()));
+
+		PollResponse archived = pollService.getPollById(poll.getId(), voters.get(4));
+		assertThat(archived.getQuestion()).isEqualTo("Archive me?");
+		assertThat(archived.getOptions()).extracting(option -> option.getVotes()).containsExactly(3, 2);
+		assertThat(archived.isHasVoted()).isTrue();
+		assertThat(archived.getUserVote()).isEqualTo(no);
+		assertThat(pollService.getPollById(poll.getId(), admin).isHasVoted()).isFalse();
+		assertThat(pollService.getPollsByIds(List.of(poll.getId()), voters.get(4)))
+				.singleElement().satisfies(item -> assertThat(item.getPoll()).isEqualTo(archived));
+	}
+
+	@Test
+	void onlyOneInstanceArchivesAtATime() {
+		String admin = fixtures.createUser(Role.ADMIN);
+		PollResponse poll = pollService.createPoll(pollRequest("Archive me later?", "Yes", "No"), admin);
+		pollService.closePoll(poll.getId(), admin);
+
+		LocalDateTime now = LocalDateTime.now();
+		transactionTemplate.executeWithoutResult(status ->
+				jobLockRepository.acquire("poll-archiver", "other-instance", now, now.plusMinutes(10)));
+		try {
+			assertThat(pollArchiver.archiveClosedBefore(now.plusMinutes(1))).isZero();
+			assertThat(pollRepository.findById(poll.getId())).isPresent();
+		} finally {
+			transactionTemplate.executeWithoutResult(status ->
+					jobLockRepository.release("poll-archiver", "other-instance", LocalDateTime.now()));
+		}
+
+		assertThat(pollArchiver.archiveClosedBefore(LocalDateTime.now().plusMinutes(1))).isGreaterThanOrEqualTo(1);
+		assertThat(pollRepository.findById(poll.getId())).isEmpty();
+	}
+
+	@Test
+	void aRunStopsOnceAnotherInstanceTakesTheLock() {
+		while (pollArchiver.archiveClosedBefore(LocalDateTime.now().plusMinutes(1)) > 0) {
+			// Archive whatever earlier tests left closed
+		}
+		String admin = fixtures.createUser(Role.ADMIN);
+		List<Long> pollIds = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			PollResponse poll = pollService.createPoll(pollRequest("Taken over " + i + "?", "Yes", "No"), admin);
+			pollService.closePoll(poll.getId(), admin);
+			pollIds.add(poll.getId());
+		}
+
+		// Another instance takes over once the first poll is gone
+		doAnswer(invocation -> {
+			transactionTemplate.executeWithoutResult(status -> jobLockRepository.findById("poll-archiver")
+					.ifPresent(lock -> lock.setLockedBy("other-instance")));
+			return invocation.callRealMethod();
+		}).doCallRealMethod().when(trendingPollTracker).remove(anyLong());
+		try {
+			assertThat(pollArchiver.archiveClosedBefore(LocalDateTime.now().plusMinutes(1))).isEqualTo(1);
+			assertThat(pollIds).filteredOn(pollId -> pollRepository.findById(pollId).isPresent())
+					.singleElement()
+					.satisfies(pollId -> assertThat(pollRepository.findById(pollId).orElseThrow().getStatus())
+							.isEqualTo(PollStatus.CLOSED));
+			assertThat(jobLockRepository.findById("poll-archiver").orElseThrow().getLockedBy())
+					.isEqualTo("other-instance");
+		} finally {
+			reset(trendingPollTracker);
+			transactionTemplate.executeWithoutResult(status ->
+					jobLockRepository.release("poll-archiver", "other-instance", LocalDateTime.now()));
+		}
+	}
+
+	@Test
+	void archivedPollsCannotBeEdited() {
+		String admin = fixtures.createUser(Role.ADMIN);
+		PollResponse poll = pollService.createPoll(pollRequest("Archived mid-edit?", "Yes", "No"), admin);
+		pollService.closePoll(poll.getId(), admin);
+		// As the archiver leaves it between marking the poll and deleting its live rows
+		setStatus(poll.getId(), PollStatus.ARCHIVED);
+		try {
+			assertThatThrownBy(() -> pollService.updatePoll(poll.getId(), pollRequest("Edited?", "Yes", "No"), admin))
+					.isInstanceOfSatisfying(VoteRejectedException.class,
+							e -> assertThat(e.getReason()).isEqualTo(VoteRejectedException.Reason.POLL_NOT_FOUND));
+			assertThat(pollRepository.findById(poll.getId()).orElseThrow().getQuestion()).isEqualTo("Archived mid-edit?");
+		} finally {
+			setStatus(poll.getId(), PollStatus.CLOSED);
+		}
+	}
+
+	private void setStatus(Long pollId, PollStatus status) {
+		transactionTemplate.executeWithoutResult(tx -> pollRepository.findById(pollId)
+				.ifPresent(poll -> poll.setStatus(status)));
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.PollBatchItem;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import com.pollvoting.poll_voting_app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.pollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@ActiveProfiles("test")
+class PollBatchGetTests {
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	private String admin;
+	private String voter;
+
+	@BeforeEach
+	void createUsers() {
+		admin = fixtures.createUser(Role.ADMIN);
+		voter = fixtures.createUser(Role.USER);
+	}
+
+	@Test
+	void returnsPollsInRequestOrderWithNotFoundMarkers() {
+		PollResponse first = pollService.createPoll(pollRequest("First?", "A", "B"), admin);
+		PollResponse second = pollService.createPoll(pollRequest("Second?", "C", "D"), admin);
+		Long d = second.getOptions().get(1).getId();
+		pollService.vote(second.getId(), voteRequest(d), voter);
+
+		List<PollBatchItem> items = pollService.getPollsByIds(List.of(second.getId(), -1L, first.getId()), voter);
+
+		assertThat(items).extracting(PollBatchItem::getId).containsExactly(second.getId(), -1L, first.getId());
+		assertThat(items).extracting(PollBatchItem::isFound).containsExactly(true, false, true);
+		assertThat(items.get(0).getPoll()).isEqualTo(pollService.getPollById(second.getId(), voter));
+		assertThat(items.get(0).getPoll().getUserVote()).isEqualTo(d);
+		assertThat(items.get(0).getPoll().getOptions().get(1).getVotes()).isEqualTo(1);
+		assertThat(items.get(2).getPoll().isHasVoted()).isFalse();
+		assertThat(items.get(1).getPoll()).isNull();
+	}
+
+	@Test
+	void queryCountDoesNotGrowWithTheNumberOfPolls() {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			PollResponse poll = pollService.createPoll(pollRequest("Dashboard " + i + "?", "Yes", "No"), admin);
+			pollService.vote(poll.getId(), voteRequest(poll.getOptions().get(0).getId()), voter);
+			ids.add(poll.getId());
+		}
+
+		int forTwo = StatementCounter.count(() -> pollService.getPollsByIds(ids.subList(0, 2), voter));
+		int forTwenty = StatementCounter.count(() -> pollService.getPollsByIds(ids, voter));
+
+		assertThat(forTwenty).isEqualTo(forTwo).isLessThanOrEqualTo(5);
+	}
+
+}
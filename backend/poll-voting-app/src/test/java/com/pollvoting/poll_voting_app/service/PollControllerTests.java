@@ -0,0 +1,48 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PollControllerTests {
+
+	private final PollService pollService = mock(PollService.class);
+	private final PollController controller = new PollController(pollService, new IdempotencyCache(100, 60, 5000));
+	private final Authentication voter = new UsernamePasswordAuthenticationToken("voter@test.com", null);
+
+	@Test
+	void lockFailuresAreRetryableAndNotRememberedUnderTheIdempotencyKey() {
+		when(pollService.vote(eq(7L), any(), eq("voter@test.com")))
+				.thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+				.thenReturn(null);
+
+		ResponseEntity<?> busy = controller.vote(7L, voteRequest(3L), "k1", voter);
+
+		assertThat(busy.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(busy.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(busy.getBody()).isEqualTo(Map.of(
+				"error", "This poll is busy, your vote was not counted; please retry", "code", "RETRY"));
+
+		ResponseEntity<?> retry = controller.vote(7L, voteRequest(3L), "k1", voter);
+
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(retry.getHeaders().containsKey(IdempotencyCache.REPLAYED_HEADER)).isFalse();
+		verify(pollService, times(2)).vote(eq(7L), any(), eq("voter@test.com"));
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Search latency over a large synthetic index.
+ * Run with {@code mvn test -Pbenchmark}; size it with -Dbenchmark.polls (default 1,000,000).
+ */
+@Tag("benchmark")
+class PollSearchBenchmark {
+
+	private static final int POLLS = Integer.getInteger("benchmark.polls", 1_000_000);
+	private static final int QUERIES = 20_000;  // measured, after the same number of warm-up queries
+
+	private static final String[] WORDS = {
+			"election", "president", "budget", "festival", "coffee", "lunch", "pizza", "remote", "office",
+			"meeting", "holiday", "music", "movie", "football", "cricket", "language", "framework", "database",
+			"weekend", "project", "deadline", "release", "feature", "design", "colour", "venue", "party",
+			"charity", "volunteer", "committee", "board", "policy", "training", "conference", "travel", "hotel"
+	};
+
+	@Test
+	void searchLatencyPercentiles() {
+		PollSearchIndex index = new PollSearchIndex(4096, 20000, 64);
+		Random random = new Random(42);
+		LocalDateTime start = LocalDateTime.now().minusDays(365);
+
+		long buildStart = System.nanoTime();
+		for (long id = 1; id <= POLLS; id++) {
+			String question = "Which " + word(random) + " " + word(random) + " for the " + word(random) + "?";
+			index.index(id, question, List.of(word(random), word(random), word(random) + " " + word(random)),
+					start.plusSeconds(id * 30));
+		}
+		System.out.printf("indexed %d polls in %d ms (~%d MB estimated)%n", index.size(),
+				(System.nanoTime() - buildStart) / 1_000_000, index.estimatedBytes() / (1024 * 1024));
+
+		for (int i = 0; i < QUERIES; i++) {
+			index.search(query(random, i), 10);
+		}
+		long[] latencies = new long[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			String query = query(random, i);
+			long t0 = System.nanoTime();
+			index.search(query, 10);
+			latencies[i] = System.nanoTime() - t0;
+		}
+		Arrays.sort(latencies);
+		System.out.printf("search p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+				latencies[QUERIES / 2] / 1e6, latencies[QUERIES * 99 / 100] / 1e6, latencies[QUERIES - 1] / 1e6);
+	}
+
+	// Alternates a partially typed single word with a full word plus a partial second word
+	private static String query(Random random, int i) {
+		String full = word(random);
+		return i % 2 == 0
+				? full.substring(0, 1 + random.nextInt(full.length()))
+				: full + " " + word(random).substring(0, 3);
+	}
+
+	private static String word(Random random) {
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.PollSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollSearchIndexTests {
+
+	private final PollSearchIndex index = new PollSearchIndex(64, 20000, 64);
+
+	@Test
+	void matchesPartiallyTypedWordsInQuestionsAndOptions() {
+		index.index(1L, "Best programming language?", List.of("Java", "Kotlin"), LocalDateTime.now());
+		index.index(2L, "Favourite breakfast", List.of("Pancakes", "Porridge"), LocalDateTime.now());
+
+		assertThat(ids(index.search("progr", 10))).containsExactly(1L);
+		assertThat(ids(index.search("kot", 10))).containsExactly(1L);
+		assertThat(ids(index.search("P", 10))).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(index.search("best pancakes", 10)).isEmpty();
+	}
+
+	@Test
+	void ranksQuestionMatchesAboveOptionMatchesAndNewerPollsFirst() {
+		LocalDateTime now = LocalDateTime.now();
+		index.index(1L, "Lunch spot", List.of("Pizza place"), now);
+		index.index(2L, "Pizza toppings", List.of("Cheese"), now.minusDays(30));
+		index.index(3L, "Pizza crust", List.of("Thin"), now);
+
+		assertThat(ids(index.search("pizza", 10))).containsExactly(3L, 2L, 1L);
+	}
+
+	@Test
+	void updatesAndDeletesAreReflectedImmediately() {
+		index.index(1L, "Old question", List.of("A"), LocalDateTime.now());
+		index.index(1L, "New question", List.of("B"), LocalDateTime.now());
+
+		assertThat(index.search("old", 10)).isEmpty();
+		assertThat(ids(index.search("new", 10))).containsExactly(1L);
+
+		index.remove(1L);
+		assertThat(index.search("question", 10)).isEmpty();
+		assertThat(index.size()).isZero();
+		assertThat(index.estimatedBytes()).isZero();
+	}
+
+	@Test
+	void evictsOldestPollsWhenOverMemoryBudget() {
+		PollSearchIndex small = new PollSearchIndex(1, 20000, 64);
+		small.index(1L, "Ancient question", List.of("yes", "no"), LocalDateTime.now());
+		for (long id = 2; id <= 20000; id++) {
+			small.index(id, "Question number " + id, List.of("yes", "no"), LocalDateTime.now());
+		}
+
+		assertThat(small.estimatedBytes()).isLessThanOrEqualTo(1024 * 1024);
+		assertThat(small.size()).isBetween(1, 19999);
+		assertThat(ids(small.search("20000", 10))).containsExactly(20000L);
+		assertThat(small.search("ancient", 10)).isEmpty();
+	}
+
+	@Test
+	void partialTermsExpandToAtMostTheConfiguredNumberOfWords() {
+		PollSearchIndex capped = new PollSearchIndex(64, 20000, 2);
+		capped.index(1L, "Apple", List.of(), LocalDateTime.now());
+		capped.index(2L, "Apricot", List.of(), LocalDateTime.now());
+		capped.index(3L, "Avocado", List.of(), LocalDateTime.now());
+
+		assertThat(ids(capped.search("a", 10))).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(ids(capped.search("av", 10))).containsExactly(3L);
+	}
+
+	private List<Long> ids(List<PollSearchResult> results) {
+		return results.stream().map(PollSearchResult::getId).toList();
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.PollResultSnapshot;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.repository.PollResultSnapshotRepository;
+import com.pollvoting.poll_voting_app.repository.VoteRepository;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.pollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PollServiceTests {
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PollResultSnapshotRepository pollResultSnapshotRepository;
+
+	@Autowired
+	private PollSnapshotStore pollSnapshotStore;
+
+	private String admin;
+	private String voter;
+
+	@BeforeEach
+	void createUsers() {
+		admin = fixtures.createUser(Role.ADMIN);
+		voter = fixtures.createUser(Role.USER);
+	}
+
+	@Test
+	void voteIsCountedRecordedAndTrending() {
+		PollResponse poll = pollService.createPoll(pollRequest("Trending question?", "Up", "Down"), admin);
+		Long up = poll.getOptions().get(0).getId();
+
+		pollService.vote(poll.getId(), voteRequest(up), voter);
+
+		PollResponse read = pollService.getPollById(poll.getId(), voter);
+		assertThat(read.isHasVoted()).isTrue();
+		assertThat(read.getUserVote()).isEqualTo(up);
+		assertThat(read.getOptions().get(0).getVotes()).isEqualTo(1);
+		assertThat(pollService.getTrendingPolls(50)).anyMatch(trending -> trending.getId().equals(poll.getId()));
+	}
+
+	@Test
+	void secondVoteOnSamePollIsRejected() {
+		PollResponse poll = pollService.createPoll(pollRequest("Once only?", "A", "B"), admin);
+		pollService.vote(poll.getId(), voteRequest(poll.getOptions().get(0).getId()), voter);
+
+		assertThatThrownBy(() -> pollService.vote(poll.getId(), voteRequest(poll.getOptions().get(1).getId()), voter))
+				.isInstanceOfSatisfying(VoteRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(VoteRejectedException.Reason.ALREADY_VOTED));
+	}
+
+	@Test
+	void closedPollsAreServedFromTheirSnapshot() throws Exception {
+		PollResponse poll = pollService.createPoll(pollRequest("Frozen question?", "Ice", "Water"), admin);
+		Long ice = poll.getOptions().get(0).getId();
+		pollService.vote(poll.getId(), voteRequest(ice), voter);
+		assertThat(pollService.getClosedPollSnapshot(poll.getId(), voter)).isNull();
+
+		pollService.closePoll(poll.getId(), admin);
+
+		PollResponse voterView = objectMapper.readValue(pollService.getClosedPollSnapshot(poll.getId(), voter), PollResponse.class);
+		assertThat(voterView).isEqualTo(pollService.getPollById(poll.getId(), voter));
+		assertThat(voterView.getUserVote()).isEqualTo(ice);
+		assertThat(voterView.getOptions().get(0).getVotes()).isEqualTo(1);
+
+		PollResponse adminView = objectMapper.readValue(pollService.getClosedPollSnapshot(poll.getId(), admin), PollResponse.class);
+		assertThat(adminView.isHasVoted()).isFalse();
+		assertThat(adminView.getUserVote()).isNull();
+
+		// The stored JSON is re-written on load, so its layout doesn't matter
+		PollResultSnapshot stored = pollResultSnapshotRepository.findById(poll.getId()).orElseThrow();
+		stored.setPayload(objectMapper.writerWithDefaultPrettyPrinter()
+				.writeValueAsString(objectMapper.readTree(stored.getPayload())) + "\n");
+		pollResultSnapshotRepository.save(stored);
+		pollSnapshotStore.evict(poll.getId());
+		assertThat(objectMapper.readValue(pollService.getClosedPollSnapshot(poll.getId(), voter), PollResponse.class))
+				.isEqualTo(voterView);
+
+		assertThatThrownBy(() -> pollService.vote(poll.getId(), voteRequest(ice), fixtures.createUser(Role.USER)))
+				.isInstanceOfSatisfying(VoteRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(VoteRejectedException.Reason.POLL_CLOSED));
+	}
+
+	@Test
+	void snapshotsCachedOnAnotherInstanceFollowEditsAndDeletes() throws Exception {
+		// Another instance's store: this one's edits and deletes only evict the local cache
+		PollSnapshotStore elsewhere = new PollSnapshotStore(pollResultSnapshotRepository, objectMapper, 100, 0, 0);
+		PollResponse poll = pollService.createPoll(pollRequest("Lunch?", "Soup", "Salad"), admin);
+		pollService.closePoll(poll.getId(), admin);
+		assertThat(elsewhere.find(poll.getId())).isNotNull();
+
+		pollService.updatePoll(poll.getId(), pollRequest("Dinner?", "Soup", "Salad"), admin);
+		PollResponse edited = objectMapper.readValue(elsewhere.withUserVote(elsewhere.find(poll.getId()), null),
+				PollResponse.class);
+		assertThat(edited.getQuestion()).isEqualTo("Dinner?");
+
+		pollService.deletePoll(poll.getId(), admin);
+		assertThat(elsewhere.find(poll.getId())).isNull();
+	}
+
+	@Test
+	void deletedPollsDisappearFromSearchAndTrending() {
+		PollResponse poll = pollService.createPoll(pollRequest("Disposable zebra poll?", "Yes", "No"), admin);
+		pollService.vote(poll.getId(), voteRequest(poll.getOptions().get(0).getId()), voter);
+		assertThat(pollService.searchPolls("zebra", 10)).hasSize(1);
+		assertThat(pollService.getTrendingPolls(50)).anyMatch(trending -> trending.getId().equals(poll.getId()));
+
+		pollService.deletePoll(poll.getId(), admin);
+
+		assertThat(pollService.searchPolls("zebra", 10)).isEmpty();
+		assertThat(pollService.getTrendingPolls(50)).noneMatch(trending -> trending.getId().equals(poll.getId()));
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Instant-runoff tally of a large ranked-choice election: folding ballots in one at a
+ * time as they arrive, and recounting everything from the grouped rankings as after a
+ * restart, next to a plain per-ballot count for comparison.
+ * Run with {@code mvn test -Pbenchmark}; size it with -Dbenchmark.ballots (default 1,000,000)
+ * and -Dbenchmark.options (default 8).
+ */
+@Tag("benchmark")
+class RankedChoiceBenchmark {
+
+	private static final int BALLOTS = Integer.getInteger("benchmark.ballots", 1_000_000);
+	private static final int OPTIONS = Integer.getInteger("benchmark.options", 8);
+	private static final int RUNS = 5;
+
+	@Test
+	void tallyMillionsOfBallots() {
+		byte[][] ballots = ballots(new Random(42));
+		Map<String, Long> grouped = new HashMap<>();
+		for (byte[] ballot : ballots) {
+			grouped.merge(new String(ballot, StandardCharsets.ISO_8859_1), 1L, Long::sum);
+		}
+
+		RankedChoiceTally live = null;
+		long[] adding = new long[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			live = new RankedChoiceTally(OPTIONS);
+			long start = System.nanoTime();
+			for (int i = 0; i < ballots.length; i++) {
+				live.add(ballots[i]);
+				// Someone watching the results every 10,000 ballots
+				if (i % 10_000 == 0) {
+					live.rounds();
+				}
+			}
+			live.rounds();
+			adding[run] = System.nanoTime() - start;
+		}
+
+		RankedChoiceTally recounted = null;
+		long[] loading = new long[RUNS];
+		long[] recounting = new long[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.nanoTime();
+			recounted = new RankedChoiceTally(OPTIONS);
+			for (Map.Entry<String, Long> group : grouped.entrySet()) {
+				recounted.load(group.getKey().getBytes(StandardCharsets.ISO_8859_1), group.getValue());
+			}
+			long loaded = System.nanoTime();
+			recounted.rounds();
+			loading[run] = loaded - start;
+			recounting[run] = System.nanoTime() - loaded;
+		}
+
+		long[] perBallot = new long[RUNS];
+		int perBallotWinner = -1;
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.nanoTime();
+			perBallotWinner = perBallotWinner(ballots);
+			perBallot[run] = System.nanoTime() - start;
+		}
+
+		assertThat(live.winner()).isEqualTo(recounted.winner()).isEqualTo(perBallotWinner);
+		System.out.printf("%,d ballots, %d options, %,d distinct rankings, %d rounds%n",
+				BALLOTS, OPTIONS, grouped.size(), recounted.rounds().size());
+		System.out.printf("%-34s %10s%n", "", "median ms");
+		System.out.printf("%-34s %10.1f%n", "add one by one (incremental)", median(adding));
+		System.out.printf("%-34s %10.1f%n", "load grouped rankings", median(loading));
+		System.out.printf("%-34s %10.1f%n", "recount from grouped rankings", median(recounting));
+		System.out.printf("%-34s %10.1f%n", "recount ballot by ballot", median(perBallot));
+		assertThat(median(loading) + median(recounting)).isLessThan(1000);
+	}
+
+	// Voters favour some candidates over others and many only rank their first few
+	private static byte[][] ballots(Random random) {
+		double[] popularity = new double[OPTIONS];
+		for (int option = 0; option < OPTIONS; option++) {
+			popularity[option] = 1 + random.nextDouble() * 4;
+		}
+		byte[][] ballots = new byte[BALLOTS][];
+		for (int b = 0; b < BALLOTS; b++) {
+			boolean[] ranked = new boolean[OPTIONS];
+			byte[] ballot = new byte[1 + Math.min(OPTIONS - 1, (int) (-Math.log(1 - random.nextDouble()) * 2.5))];
+			for (int i = 0; i < ballot.length; i++) {
+				double left = 0;
+				for (int option = 0; option < OPTIONS; option++) {
+					left += ranked[option] ? 0 : popularity[option];
+				}
+				double pick = random.nextDouble() * left;
+				int option = -1;
+				do {
+					option++;
+					pick -= ranked[option] ? 0 : popularity[option];
+				} while (pick > 0 || ranked[option]);
+				ranked[option] = true;
+				ballot[i] = (byte) option;
+			}
+			ballots[b] = ballot;
+		}
+		return ballots;
+	}
+
+	// The textbook count: every ballot looked at again in every round
+	private static int perBallotWinner(byte[][] ballots) {
+		boolean[] out = new boolean[OPTIONS];
+		while (true) {
+			long[] votes = new long[OPTIONS];
+			long active = 0;
+			for (byte[] ballot : ballots) {
+				for (byte choice : ballot) {
+					if (!out[choice]) {
+						votes[choice]++;
+						active++;
+						break;
+					}
+				}
+			}
+			int leader = -1;
+			int loser = -1;
+			for (int option = 0; option < OPTIONS; option++) {
+				if (out[option]) {
+					continue;
+				}
+				if (leader < 0 || votes[option] > votes[leader]) {
+					leader = option;
+				}
+				if (loser < 0 || votes[option] <= votes[loser]) {
+					loser = option;
+				}
+			}
+			if (votes[leader] * 2 > active) {
+				return leader;
+			}
+			out[loser] = true;
+		}
+	}
+
+	private static double median(long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2] / 1e6;
+	}
+
+}
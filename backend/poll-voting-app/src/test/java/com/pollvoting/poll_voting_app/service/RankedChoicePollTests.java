@@ -0,0 +1,144 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.BallotOutcome;
+import com.pollvoting.poll_voting_app.dto.BallotRequest;
+import com.pollvoting.poll_voting_app.dto.BallotVote;
+import com.pollvoting.poll_voting_app.dto.OptionResponse;
+import com.pollvoting.poll_voting_app.dto.PollRequest;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.dto.RankedResultsResponse;
+import com.pollvoting.poll_voting_app.dto.RankedRound;
+import com.pollvoting.poll_voting_app.dto.VoteRequest;
+import com.pollvoting.poll_voting_app.entity.PollType;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException.Reason;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.rankedPollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.rankedVoteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.ranked.reload-interval-ms=0")
+@ActiveProfiles("test")
+class RankedChoicePollTests {
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private RankedChoiceService rankedChoiceService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	private String admin;
+
+	@BeforeEach
+	void createAdmin() {
+		admin = fixtures.createUser(Role.ADMIN);
+	}
+
+	@Test
+	void ballotsAreTalliedRoundByRoundAsTheyArrive() {
+		PollResponse poll = pollService.createPoll(rankedPollRequest("Capital?", "Memphis", "Nashville", "Chattanooga", "Knoxville"), admin);
+		assertThat(poll.getPollType()).isEqualTo(PollType.RANKED_CHOICE);
+		Long memphis = option(poll, 0), nashville = option(poll, 1), chattanooga = option(poll, 2), knoxville = option(poll, 3);
+
+		vote(poll, 4, memphis, nashville, chattanooga, knoxville);
+		// Loaded from the database here, then kept up to date by the ballots that follow
+		assertThat(pollService.getRankedResults(poll.getId()).getWinner()).isEqualTo(memphis);
+		vote(poll, 3, nashville, chattanooga, knoxville, memphis);
+		vote(poll, 2, chattanooga, knoxville, nashville, memphis);
+		vote(poll, 3, knoxville, chattanooga, nashville, memphis);
+
+		RankedResultsResponse results = pollService.getRankedResults(poll.getId());
+		assertThat(results.getBallots()).isEqualTo(12);
+		assertThat(results.getRounds()).extracting(RankedRound::getEliminated).containsExactly(chattanooga, nashville, null);
+		assertThat(results.getRounds().get(1).getOptions()).extracting(OptionResponse::getVotes).containsExactly(4, 3, 5);
+		assertThat(results.getRounds().get(2).getWinner()).isEqualTo(knoxville);
+		assertThat(results.getWinner()).isEqualTo(knoxville);
+
+		// The poll itself shows first preferences
+		assertThat(pollService.getPollById(poll.getId(), admin).getOptions())
+				.extracting(OptionResponse::getVotes).containsExactly(4, 3, 2, 3);
+
+		rankedChoiceService.evict(poll.getId());
+		assertThat(pollService.getRankedResults(poll.getId())).isEqualTo(results);
+
+		// Closing drops the open tally; the first read after it loads the final one, which is kept
+		assertThat(rankedChoiceService.isLoaded(poll.getId())).isTrue();
+		pollService.closePoll(poll.getId(), admin);
+		assertThat(rankedChoiceService.isLoaded(poll.getId())).isFalse();
+		assertThat(pollService.getRankedResults(poll.getId())).isEqualTo(results);
+		assertThat(rankedChoiceService.isLoaded(poll.getId())).isTrue();
+	}
+
+	@Test
+	void ballotsTakenByAnotherInstanceAreReadBack() {
+		PollResponse poll = pollService.createPoll(rankedPollRequest("Secretary?", "Eve", "Fay"), admin);
+		Long eve = option(poll, 0), fay = option(poll, 1);
+		vote(poll, 1, eve, fay);
+		assertThat(pollService.getRankedResults(poll.getId()).getWinner()).isEqualTo(eve);
+
+		// Only the database knows about these two
+		jdbc.update("INSERT INTO ranked_ballot_groups (poll_id, ranking, shard, ballot_count) VALUES (:pollId, :ranking, 0, 2)",
+				Map.of("pollId", poll.getId(), "ranking", new byte[]{1, 0}));
+
+		RankedResultsResponse results = pollService.getRankedResults(poll.getId());
+		assertThat(results.getBallots()).isEqualTo(3);
+		assertThat(results.getWinner()).isEqualTo(fay);
+	}
+
+	@Test
+	void rankingsAreChecked() {
+		PollResponse poll = pollService.createPoll(rankedPollRequest("Chair?", "Ana", "Ben", "Cy"), admin);
+		PollResponse other = pollService.createPoll(rankedPollRequest("Treasurer?", "Dee"), admin);
+		String voter = fixtures.createUser(Role.USER);
+
+		assertRejected(poll, rankedVoteRequest(), voter, Reason.RANKING_REQUIRED);
+		assertRejected(poll, rankedVoteRequest(option(poll, 0), option(poll, 1), option(poll, 0)), voter, Reason.INVALID_OPTION);
+		assertRejected(poll, rankedVoteRequest(option(poll, 0), option(other, 0)), voter, Reason.INVALID_OPTION);
+
+		pollService.vote(poll.getId(), rankedVoteRequest(option(poll, 2)), voter);
+		assertRejected(poll, rankedVoteRequest(option(poll, 1)), voter, Reason.ALREADY_VOTED);
+
+		BallotRequest ballot = new BallotRequest();
+		ballot.setVotes(List.of(new BallotVote(other.getId(), option(other, 0))));
+		assertThat(pollService.submitBallot(ballot, voter).getOutcomes())
+				.extracting(BallotOutcome::getCode).containsExactly(Reason.RANKING_REQUIRED.name());
+
+		PollRequest singleChoice = rankedPollRequest("Single?", "Yes", "No");
+		singleChoice.setPollType(null);
+		assertThat(pollService.getRankedResults(pollService.createPoll(singleChoice, admin).getId())).isNull();
+	}
+
+	private void vote(PollResponse poll, int voters, Long... ranking) {
+		for (int i = 0; i < voters; i++) {
+			pollService.vote(poll.getId(), rankedVoteRequest(ranking), fixtures.createUser(Role.USER));
+		}
+	}
+
+	private void assertRejected(PollResponse poll, VoteRequest request, String voter, Reason reason) {
+		assertThatThrownBy(() -> pollService.vote(poll.getId(), request, voter))
+				.isInstanceOfSatisfying(VoteRejectedException.class, e -> assertThat(e.getReason()).isEqualTo(reason));
+	}
+
+	private static Long option(PollResponse poll, int index) {
+		return poll.getOptions().get(index).getId();
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.dto.RankedResultsResponse;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import com.pollvoting.poll_voting_app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.rankedPollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.rankedVoteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The reload interval outlasts each test, so only loads read the rankings
+@SpringBootTest(properties = {StatementCounter.PROPERTY, "app.ranked.reload-interval-ms=600000"})
+@ActiveProfiles("test")
+class RankedChoiceReadTests {
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	private String admin;
+
+	@BeforeEach
+	void createAdmin() {
+		admin = fixtures.createUser(Role.ADMIN);
+	}
+
+	@Test
+	void repeatedReadsOfAnOpenPollDoNotQueryTheRankings() {
+		PollResponse poll = pollService.createPoll(rankedPollRequest("Mascot?", "Owl", "Fox"), admin);
+		vote(poll, 0, 1);
+		vote(poll, 1, 0);
+
+		assertThat(rankingQueries(poll)).isPositive();
+		for (int i = 0; i < 10; i++) {
+			assertThat(rankingQueries(poll)).isZero();
+		}
+
+		// New ballots reach the tally without a query either
+		vote(poll, 1, 0);
+		assertThat(rankingQueries(poll)).isZero();
+		assertThat(pollService.getRankedResults(poll.getId()).getBallots()).isEqualTo(3);
+	}
+
+	@Test
+	void closedPollsAreCountedOnceAndKept() {
+		PollResponse poll = pollService.createPoll(rankedPollRequest("Colour?", "Red", "Green", "Blue"), admin);
+		vote(poll, 0, 1);
+		vote(poll, 1);
+		vote(poll, 2, 1);
+		RankedResultsResponse open = pollService.getRankedResults(poll.getId());
+		pollService.closePoll(poll.getId(), admin);
+
+		assertThat(rankingQueries(poll)).isPositive();
+		for (int i = 0; i < 10; i++) {
+			assertThat(rankingQueries(poll)).isZero();
+		}
+		assertThat(pollService.getRankedResults(poll.getId())).isEqualTo(open);
+	}
+
+	private long rankingQueries(PollResponse poll) {
+		List<String> statements = StatementCounter.statements(() -> pollService.getRankedResults(poll.getId()));
+		return statements.stream().filter(sql -> sql.contains("ranked_ballot_groups")).count();
+	}
+
+	// One ballot ranking the options at these positions
+	private void vote(PollResponse poll, int... positions) {
+		Long[] ranking = new Long[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			ranking[i] = poll.getOptions().get(positions[i]).getId();
+		}
+		pollService.vote(poll.getId(), rankedVoteRequest(ranking), fixtures.createUser(Role.USER));
+	}
+
+}
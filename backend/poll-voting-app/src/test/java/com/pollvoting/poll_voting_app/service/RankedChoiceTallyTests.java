@@ -0,0 +1,148 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedChoiceTallyTests {
+
+	private static final int MEMPHIS = 0, NASHVILLE = 1, CHATTANOOGA = 2, KNOXVILLE = 3;
+
+	@Test
+	void transfersEliminatedBallotsUntilAMajority() {
+		RankedChoiceTally tally = new RankedChoiceTally(4);
+		tally.load(ranking(MEMPHIS, NASHVILLE, CHATTANOOGA, KNOXVILLE), 42);
+		tally.load(ranking(NASHVILLE, CHATTANOOGA, KNOXVILLE, MEMPHIS), 26);
+		tally.load(ranking(CHATTANOOGA, KNOXVILLE, NASHVILLE, MEMPHIS), 15);
+		tally.load(ranking(KNOXVILLE, CHATTANOOGA, NASHVILLE, MEMPHIS), 17);
+
+		List<RankedChoiceTally.Round> rounds = tally.rounds();
+		assertThat(rounds).hasSize(3);
+		assertThat(rounds.get(0).votes).containsExactly(42, 26, 15, 17);
+		assertThat(rounds.get(0).eliminated).isEqualTo(CHATTANOOGA);
+		assertThat(rounds.get(1).votes).containsExactly(42, 26, 0, 32);
+		assertThat(rounds.get(1).eliminated).isEqualTo(NASHVILLE);
+		assertThat(rounds.get(2).votes).containsExactly(42, 0, 0, 58);
+		assertThat(rounds.get(2).winner).isEqualTo(KNOXVILLE);
+		assertThat(tally.winner()).isEqualTo(KNOXVILLE);
+	}
+
+	@Test
+	void shortRankingsExhaustAndLeaveTheMajorityToTheRest() {
+		RankedChoiceTally tally = new RankedChoiceTally(3);
+		tally.load(ranking(0), 4);
+		tally.load(ranking(1), 3);
+		tally.load(ranking(2), 2);
+
+		List<RankedChoiceTally.Round> rounds = tally.rounds();
+		// Option 2's ballots rank nothing else, so 4 of the 7 left is a majority
+		assertThat(rounds.get(1).exhausted).isEqualTo(2);
+		assertThat(rounds.get(1).winner).isEqualTo(0);
+	}
+
+	@Test
+	void tiesForLastLookBackThenEliminateTheLaterOption() {
+		RankedChoiceTally tally = new RankedChoiceTally(4);
+		tally.load(ranking(0), 6);
+		tally.load(ranking(1), 2);
+		tally.load(ranking(2), 3);
+		tally.load(ranking(3, 1), 1);
+
+		List<RankedChoiceTally.Round> rounds = tally.rounds();
+		assertThat(rounds.get(0).eliminated).isEqualTo(3);
+		// 1 and 2 both have 3 now, but 1 had fewer in the round before
+		assertThat(rounds.get(1).votes).containsExactly(6, 3, 3, 0);
+		assertThat(rounds.get(1).eliminated).isEqualTo(1);
+		assertThat(rounds.get(2).exhausted).isEqualTo(3);
+		assertThat(rounds.get(2).winner).isEqualTo(0);
+
+		RankedChoiceTally split = new RankedChoiceTally(3);
+		split.load(ranking(0), 2);
+		split.load(ranking(1), 1);
+		split.load(ranking(2), 1);
+		// Tied in every round so far: the later option goes first
+		assertThat(split.rounds().get(0).eliminated).isEqualTo(2);
+	}
+
+	@Test
+	void incrementalRoundsMatchAFullRecount() {
+		Random random = new Random(7);
+		for (int trial = 0; trial < 50; trial++) {
+			int options = 2 + random.nextInt(6);
+			RankedChoiceTally incremental = new RankedChoiceTally(options);
+			List<byte[]> ballots = new ArrayList<>();
+			for (int i = 0; i < 300; i++) {
+				byte[] ballot = randomRanking(random, options);
+				ballots.add(ballot);
+				incremental.add(ballot);
+				if (i % 7 == 0) {
+					// Read now and then so the rounds are kept and updated rather than recounted
+					incremental.rounds();
+				}
+			}
+
+			RankedChoiceTally recounted = new RankedChoiceTally(options);
+			ballots.forEach(ballot -> recounted.load(ballot, 1));
+			assertSameRounds(incremental.rounds(), recounted.rounds());
+			assertThat(incremental.ballots()).isEqualTo(300);
+		}
+	}
+
+	@Test
+	void removedBallotsAreTakenBack() {
+		RankedChoiceTally tally = new RankedChoiceTally(2);
+		tally.add(ranking(0, 1));
+		tally.add(ranking(1, 0));
+		tally.rounds();
+		tally.add(ranking(1, 0));
+		assertThat(tally.winner()).isEqualTo(1);
+
+		tally.remove(ranking(1, 0));
+		assertThat(tally.ballots()).isEqualTo(2);
+		assertThat(tally.rounds().get(0).votes).containsExactly(1, 1);
+	}
+
+	@Test
+	void noBallotsNoWinner() {
+		RankedChoiceTally tally = new RankedChoiceTally(3);
+		assertThat(tally.rounds()).hasSize(1);
+		assertThat(tally.winner()).isEqualTo(-1);
+	}
+
+	private static void assertSameRounds(List<RankedChoiceTally.Round> actual, List<RankedChoiceTally.Round> expected) {
+		assertThat(actual).hasSameSizeAs(expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(actual.get(i).votes).as("round %d votes", i + 1).containsExactly(expected.get(i).votes);
+			assertThat(actual.get(i).exhausted).as("round %d exhausted", i + 1).isEqualTo(expected.get(i).exhausted);
+			assertThat(actual.get(i).eliminated).as("round %d eliminated", i + 1).isEqualTo(expected.get(i).eliminated);
+			assertThat(actual.get(i).winner).as("round %d winner", i + 1).isEqualTo(expected.get(i).winner);
+		}
+	}
+
+	// Skewed towards the low options, so rounds are close and outcomes flip as ballots arrive
+	static byte[] randomRanking(Random random, int options) {
+		List<Integer> remaining = new ArrayList<>();
+		for (int option = 0; option < options; option++) {
+			remaining.add(option);
+		}
+		byte[] ranking = new byte[1 + random.nextInt(options)];
+		for (int i = 0; i < ranking.length; i++) {
+			int pick = Math.min(random.nextInt(remaining.size()), random.nextInt(remaining.size()));
+			ranking[i] = (byte) remaining.remove(pick).intValue();
+		}
+		return ranking;
+	}
+
+	private static byte[] ranking(int... options) {
+		byte[] ranking = new byte[options.length];
+		for (int i = 0; i < options.length; i++) {
+			ranking[i] = (byte) options[i];
+		}
+		return ranking;
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.pollvoting.poll_voting_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingPollTrackerTests {
+
+	private static final long NOW = 1_700_000_000_000L;
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	@Test
+	void recentVotesOutrankOlderBursts() {
+		TrendingPollTracker tracker = new TrendingPollTracker(4, 16, 10);
+		for (int i = 0; i < 100; i++) {
+			tracker.record(1L, NOW - 60 * MINUTE);
+		}
+		for (int i = 0; i < 30; i++) {
+			tracker.record(2L, NOW - MINUTE);
+		}
+
+		List<TrendingPollTracker.Trending> top = tracker.top(10, NOW);
+		assertThat(top).extracting(TrendingPollTracker.Trending::pollId).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void scoresHalveEveryHalfLife() {
+		TrendingPollTracker tracker = new TrendingPollTracker(1, 8, 10);
+		for (int i = 0; i < 50; i++) {
+			tracker.record(7L, NOW);
+		}
+
+		double fresh = tracker.top(1, NOW).get(0).votesPerMinute();
+		double later = tracker.top(1, NOW + 10 * MINUTE).get(0).votesPerMinute();
+		assertThat(later).isCloseTo(fresh / 2, within(1e-9));
+	}
+
+	@Test
+	void memoryStaysBoundedAndHeavyHittersSurvive() {
+		TrendingPollTracker tracker = new TrendingPollTracker(2, 8, 10);
+		for (long pollId = 100; pollId < 10_000; pollId++) {
+			tracker.record(pollId, NOW);
+			tracker.record(1L, NOW);
+		}
+
+		List<TrendingPollTracker.Trending> top = tracker.top(100, NOW);
+		assertThat(top).hasSizeLessThanOrEqualTo(16);
+		assertThat(top.get(0).pollId()).isEqualTo(1L);
+	}
+
+	@Test
+	void survivesLongUptimeWithoutOverflow() {
+		TrendingPollTracker tracker = new TrendingPollTracker(1, 8, 1);
+		for (int day = 0; day < 30; day++) {
+			tracker.record(3L, NOW + day * Duration.ofDays(1).toMillis());
+		}
+
+		double rate = tracker.top(1, NOW + 29 * Duration.ofDays(1).toMillis()).get(0).votesPerMinute();
+		assertThat(rate).isFinite().isPositive();
+	}
+
+	@Test
+	void concurrentVotesAreAllCounted() throws Exception {
+		TrendingPollTracker tracker = new TrendingPollTracker(16, 64, 10);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			pool.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					tracker.record(i % 50, NOW);
+				}
+			});
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		double perMinutePerVote = Math.log(2) / 10;
+		double total = tracker.top(50, NOW).stream().mapToDouble(TrendingPollTracker.Trending::votesPerMinute).sum();
+		assertThat(total / perMinutePerVote).isCloseTo(80_000, within(1.0));
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.entity.Poll;
+import com.pollvoting.poll_voting_app.entity.PollOption;
+import com.pollvoting.poll_voting_app.repository.PollRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Votes per second on a single hot option for increasing shard counts.
+ * Run with {@code mvn test -Pbenchmark}; tune with -Dbenchmark.threads and -Dbenchmark.seconds.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class VoteCounterBenchmark {
+
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+	private static final int SECONDS = Integer.getInteger("benchmark.seconds", 3);
+
+	@Autowired
+	private VoteCounterService voteCounterService;
+
+	@Autowired
+	private PollRepository pollRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void votesPerSecondByShardCount() throws Exception {
+		System.out.printf("%-8s %12s%n", "shards", "votes/sec");
+		for (int shards : List.of(1, 2, 4, 8, 16, 32)) {
+			PollOption option = createHotOption(shards);
+			AtomicLong userIds = new AtomicLong();
+			AtomicLong votes = new AtomicLong();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+			ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				pool.execute(() -> {
+					while (System.nanoTime() < deadline) {
+						voteCounterService.increment(option, shards, userIds.incrementAndGet());
+						votes.incrementAndGet();
+					}
+				});
+			}
+			pool.shutdown();
+			assertThat(pool.awaitTermination(SECONDS + 30L, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(voteCounterService.countsFor(List.of(option.getId())))
+					.containsEntry(option.getId(), votes.get());
+			System.out.printf("%-8d %12d%n", shards, votes.get() / SECONDS);
+		}
+	}
+
+	private PollOption createHotOption(int shards) {
+		return transactionTemplate.execute(status -> {
+			Poll poll = new Poll();
+			poll.setQuestion("Hot option, " + shards + " shards");
+			poll.setCounterShards(shards);
+			PollOption option = new PollOption();
+			option.setText("Everyone picks this");
+			option.setPoll(poll);
+			poll.getOptions().add(option);
+			poll = pollRepository.save(poll);
+			voteCounterService.createShards(poll.getOptions(), shards);
+			return poll.getOptions().get(0);
+		});
+	}
+
+}
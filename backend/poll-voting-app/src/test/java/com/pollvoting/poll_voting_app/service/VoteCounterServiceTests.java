@@ -0,0 +1,96 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.pollvoting.poll_voting_app.entity.OptionCounterShard;
+import com.pollvoting.poll_voting_app.entity.Poll;
+import com.pollvoting.poll_voting_app.entity.PollOption;
+import com.pollvoting.poll_voting_app.entity.PollStatus;
+import com.pollvoting.poll_voting_app.repository.OptionCounterShardRepository;
+import com.pollvoting.poll_voting_app.repository.PollRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VoteCounterServiceTests {
+
+	@Autowired
+	private VoteCounterService voteCounterService;
+
+	@Autowired
+	private PollRepository pollRepository;
+
+	@Autowired
+	private OptionCounterShardRepository shardRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void incrementsAreSpreadAcrossShardsAndSummedOnRead() {
+		Poll poll = createPoll(8, "Yes", "No");
+		PollOption yes = poll.getOptions().get(0);
+		PollOption no = poll.getOptions().get(1);
+
+		for (long userId = 1; userId <= 100; userId++) {
+			voteCounterService.increment(userId % 4 == 0 ? no : yes, poll.getCounterShards(), userId);
+		}
+
+		assertThat(voteCounterService.countsFor(List.of(yes.getId(), no.getId())))
+				.isEqualTo(Map.of(yes.getId(), 75L, no.getId(), 25L));
+		assertThat(shardsOf(yes))
+				.hasSize(8)
+				.filteredOn(shard -> shard.getVoteCount() > 0)
+				.hasSizeGreaterThan(1);
+	}
+
+	@Test
+	void closedPollsAreCompactedIntoOneShard() {
+		Poll poll = createPoll(4, "Red", "Blue");
+		PollOption red = poll.getOptions().get(0);
+		for (long userId = 1; userId <= 40; userId++) {
+			voteCounterService.increment(red, poll.getCounterShards(), userId);
+		}
+		poll.setStatus(PollStatus.CLOSED);
+		pollRepository.save(poll);
+
+		voteCounterService.compactClosedPolls();
+
+		assertThat(pollRepository.findById(poll.getId()).orElseThrow().getCounterShards()).isEqualTo(1);
+		assertThat(voteCounterService.countsFor(List.of(red.getId()))).containsEntry(red.getId(), 40L);
+		assertThat(shardsOf(poll.getOptions().toArray(PollOption[]::new)))
+				.hasSize(2)
+				.allMatch(shard -> shard.getId().getShard() == 0);
+	}
+
+	private List<OptionCounterShard> shardsOf(PollOption... options) {
+		List<Long> optionIds = Arrays.stream(options).map(PollOption::getId).toList();
+		return transactionTemplate.execute(status -> shardRepository.lockByOptionIds(optionIds));
+	}
+
+	private Poll createPoll(int shards, String... options) {
+		return transactionTemplate.execute(status -> {
+			Poll poll = new Poll();
+			poll.setQuestion("Sharded?");
+			poll.setCounterShards(shards);
+			for (String text : options) {
+				PollOption option = new PollOption();
+				option.setText(text);
+				option.setPoll(poll);
+				poll.getOptions().add(option);
+			}
+			poll = pollRepository.save(poll);
+			voteCounterService.createShards(poll.getOptions(), shards);
+			return poll;
+		});
+	}
+
+}
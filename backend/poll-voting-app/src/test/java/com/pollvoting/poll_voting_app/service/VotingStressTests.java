@@ -0,0 +1,227 @@
+package com.pollvoting.poll_voting_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pollvoting.poll_voting_app.dto.OptionResponse;
+import com.pollvoting.poll_voting_app.dto.PollRequest;
+import com.pollvoting.poll_voting_app.dto.PollResponse;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.exception.VoteRejectedException;
+import com.pollvoting.poll_voting_app.support.PollFixtures;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.pollvoting.poll_voting_app.support.PollFixtures.pollRequest;
+import static com.pollvoting.poll_voting_app.support.PollFixtures.voteRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers vote, closePoll, updatePoll and closeExpiredPolls from many threads, then
+ * checks the invariants the voting path has to keep whatever it is optimized into:
+ *
+ * - at most one vote per user per poll, in user_votes and in votes,
+ * - each option's counter equals its user_votes and votes rows, and every accepted vote is there,
+ * - nothing is accepted after a close: no vote that started after closePoll returned
+ *   succeeded, and the frozen snapshot still matches the live counts.
+ *
+ * A few seconds by default; for a soak run use e.g.
+ * {@code mvn test -Dtest=VotingStressTests -Dstress.threads=64 -Dstress.seconds=600 -Dstress.users=2000}.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class VotingStressTests {
+
+	private static final int THREADS = Integer.getInteger("stress.threads", 8);
+	private static final int SECONDS = Integer.getInteger("stress.seconds", 3);
+	private static final int POLLS = Integer.getInteger("stress.polls", 6);
+	private static final int USERS = Integer.getInteger("stress.users", 60);
+
+	@Autowired
+	private PollService pollService;
+
+	@Autowired
+	private PollFixtures fixtures;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final Map<Long, List<Long>> optionIds = new ConcurrentHashMap<>();
+	// nanoTime at which closePoll returned, per poll
+	private final Map<Long, Long> closedAt = new ConcurrentHashMap<>();
+	private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger acceptedVotes = new AtomicInteger();
+	private final Map<String, AtomicInteger> rejectedVotes = new ConcurrentHashMap<>();
+
+	@Test
+	void concurrentVotingKeepsItsInvariants() throws Exception {
+		String admin = fixtures.createUser(Role.ADMIN);
+		List<String> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(fixtures.createUser(Role.USER));
+		}
+		List<Long> pollIds = new ArrayList<>();
+		for (int i = 0; i < POLLS; i++) {
+			PollRequest request = pollRequest("Stress " + i + "?", "A", "B", "C");
+			// Half of the polls expire during the run and are closed by closeExpiredPolls
+			if (i % 2 == 1) {
+				request.setClosesAt(LocalDateTime.now().plusNanos(TimeUnit.SECONDS.toNanos(SECONDS) * i / POLLS));
+			}
+			request.setCounterShards(1 + i % 4);
+			PollResponse poll = pollService.createPoll(request, admin);
+			pollIds.add(poll.getId());
+			optionIds.put(poll.getId(), poll.getOptions().stream().map(OptionResponse::getId).toList());
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+		for (int t = 0; t < THREADS; t++) {
+			pool.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					Long pollId = pollIds.get(random.nextInt(pollIds.size()));
+					int action = random.nextInt(100);
+					if (action < 90) {
+						vote(pollId, users.get(random.nextInt(users.size())), random);
+					} else if (action < 95) {
+						update(pollId, admin);
+					} else if (action < 97 && pollIds.indexOf(pollId) % 2 == 0) {
+						close(pollId, admin);
+					}
+				}
+			});
+		}
+		pool.execute(() -> {
+			while (System.nanoTime() < deadline) {
+				guard("closeExpiredPolls", pollService::closeExpiredPolls);
+				sleep(50);
+			}
+		});
+		pool.shutdown();
+		assertThat(pool.awaitTermination(SECONDS + 60L, TimeUnit.SECONDS)).isTrue();
+		// Close whatever is still open; closing an already closed poll leaves its snapshot alone
+		pollIds.forEach(pollId -> close(pollId, admin));
+
+		assertThat(violations).isEmpty();
+		assertThat(acceptedVotes.get()).isPositive();
+		assertOneVotePerUserPerPoll(pollIds);
+		assertCountsMatchRows(pollIds);
+		assertSnapshotsMatchLiveCounts(pollIds, admin);
+		log.info("stress: {} votes accepted, rejected {}, {} threads, {}s",
+				acceptedVotes.get(), rejectedVotes, THREADS, SECONDS);
+	}
+
+	private void vote(Long pollId, String user, ThreadLocalRandom random) {
+		List<Long> options = optionIds.get(pollId);
+		Long optionId = options.get(random.nextInt(options.size()));
+		long start = System.nanoTime();
+		try {
+			pollService.vote(pollId, voteRequest(optionId), user);
+			acceptedVotes.incrementAndGet();
+			Long closed = closedAt.get(pollId);
+			if (closed != null && start > closed) {
+				violations.add("vote on poll " + pollId + " accepted after closePoll returned");
+			}
+		} catch (VoteRejectedException e) {
+			// Already voted, closed, or the option was replaced by an update
+			rejectedVotes.computeIfAbsent(e.getReason().name(), reason -> new AtomicInteger()).incrementAndGet();
+		} catch (DataIntegrityViolationException e) {
+			// Lost a race on the unique keys; a deadlock or lock timeout is not expected and counts as a violation
+			rejectedVotes.computeIfAbsent(e.getClass().getSimpleName(), reason -> new AtomicInteger()).incrementAndGet();
+		} catch (RuntimeException e) {
+			violations.add("vote failed unexpectedly: " + e);
+		}
+	}
+
+	// Replacing the options only works until the first vote; after that the old rows are referenced
+	private void update(Long pollId, String admin) {
+		PollRequest request = pollRequest("Stress " + pollId + " (edited)?", "A", "B", "C");
+		try {
+			PollResponse poll = pollService.updatePoll(pollId, request, admin);
+			optionIds.put(pollId, poll.getOptions().stream().map(OptionResponse::getId).toList());
+		} catch (DataIntegrityViolationException e) {
+			// Options still referenced by votes
+		} catch (RuntimeException e) {
+			violations.add("update failed unexpectedly: " + e);
+		}
+	}
+
+	private void close(Long pollId, String admin) {
+		guard("close", () -> {
+			pollService.closePoll(pollId, admin);
+			closedAt.putIfAbsent(pollId, System.nanoTime());
+		});
+	}
+
+	private void guard(String operation, Runnable action) {
+		try {
+			action.run();
+		} catch (RuntimeException e) {
+			violations.add(operation + " failed unexpectedly: " + e);
+		}
+	}
+
+	private void assertOneVotePerUserPerPoll(List<Long> pollIds) {
+		assertThat(jdbc.queryForList("SELECT o.poll_id, uv.user_id FROM user_votes uv " +
+				"JOIN poll_options o ON o.id = uv.option_id WHERE o.poll_id IN (:pollIds) " +
+				"GROUP BY o.poll_id, uv.user_id HAVING COUNT(*) > 1", Map.of("pollIds", pollIds))).isEmpty();
+		assertThat(jdbc.queryForList("SELECT poll_id, user_id FROM votes WHERE poll_id IN (:pollIds) " +
+				"GROUP BY poll_id, user_id HAVING COUNT(*) > 1", Map.of("pollIds", pollIds))).isEmpty();
+	}
+
+	private void assertCountsMatchRows(List<Long> pollIds) {
+		List<Map<String, Object>> rows = jdbc.queryForList("SELECT o.id, " +
+				"(SELECT COALESCE(SUM(s.vote_count), 0) FROM option_counter_shards s WHERE s.option_id = o.id) AS counted, " +
+				"(SELECT COUNT(*) FROM user_votes uv WHERE uv.option_id = o.id) AS user_votes, " +
+				"(SELECT COUNT(*) FROM votes v WHERE v.option_id = o.id) AS votes " +
+				"FROM poll_options o WHERE o.poll_id IN (:pollIds)", Map.of("pollIds", pollIds));
+		long total = 0;
+		for (Map<String, Object> row : rows) {
+			long counted = ((Number) row.get("counted")).longValue();
+			assertThat(((Number) row.get("user_votes")).longValue()).as("user_votes of option %s", row.get("id")).isEqualTo(counted);
+			assertThat(((Number) row.get("votes")).longValue()).as("votes of option %s", row.get("id")).isEqualTo(counted);
+			total += counted;
+		}
+		assertThat(total).isEqualTo(acceptedVotes.get());
+	}
+
+	private void assertSnapshotsMatchLiveCounts(List<Long> pollIds, String admin) throws Exception {
+		for (Long pollId : pollIds) {
+			PollResponse frozen = objectMapper.readValue(pollService.getClosedPollSnapshot(pollId, admin), PollResponse.class);
+			Map<Long, Integer> live = pollService.getPollById(pollId, admin).getOptions().stream()
+					.collect(Collectors.toMap(OptionResponse::getId, OptionResponse::getVotes));
+			assertThat(frozen.getOptions().stream().collect(Collectors.toMap(OptionResponse::getId, OptionResponse::getVotes)))
+					.as("snapshot of poll %s", pollId).isEqualTo(live);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
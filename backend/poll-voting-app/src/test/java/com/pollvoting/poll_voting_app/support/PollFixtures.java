@@ -0,0 +1,61 @@
+package com.pollvoting.poll_voting_app.support;
+
+import com.pollvoting.poll_voting_app.dto.PollRequest;
+import com.pollvoting.poll_voting_app.dto.VoteRequest;
+import com.pollvoting.poll_voting_app.entity.PollType;
+import com.pollvoting.poll_voting_app.entity.Role;
+import com.pollvoting.poll_voting_app.entity.User;
+import com.pollvoting.poll_voting_app.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Users, polls and votes for the service tests. Users are saved with a unique email,
+ * so tests sharing a context and database never collide.
+ */
+@Component
+public class PollFixtures {
+
+	private final UserRepository userRepository;
+
+	public PollFixtures(UserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
+	//  A new user with the role; returns the email, which is what PollService takes
+	public String createUser(Role role) {
+		User user = new User();
+		user.setName(role.name());
+		user.setEmail(role.name().toLowerCase() + "-" + UUID.randomUUID() + "@test.com");
+		user.setPassword("secret");
+		user.setRole(role);
+		return userRepository.save(user).getEmail();
+	}
+
+	public static PollRequest pollRequest(String question, String... options) {
+		PollRequest request = new PollRequest();
+		request.setQuestion(question);
+		request.setOptions(List.of(options));
+		return request;
+	}
+
+	public static PollRequest rankedPollRequest(String question, String... options) {
+		PollRequest request = pollRequest(question, options);
+		request.setPollType(PollType.RANKED_CHOICE);
+		return request;
+	}
+
+	public static VoteRequest voteRequest(Long optionId) {
+		VoteRequest request = new VoteRequest();
+		request.setOptionId(optionId);
+		return request;
+	}
+
+	public static VoteRequest rankedVoteRequest(Long... optionIds) {
+		VoteRequest request = new VoteRequest();
+		request.setRanking(List.of(optionIds));
+		return request;
+	}
+}
@@ -0,0 +1,42 @@
+package com.pollvoting.poll_voting_app.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records SQL statements issued by the calling thread only, so scheduled jobs don't interfere.
+ * Install it with {@link #PROPERTY} on the test's {@code @SpringBootTest}.
+ */
+public class StatementCounter implements StatementInspector {
+
+	public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+			+ "com.pollvoting.poll_voting_app.support.StatementCounter";
+
+	private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+	public static int count(Supplier<?> action) {
+		return statements(action).size();
+	}
+
+	public static List<String> statements(Supplier<?> action) {
+		STATEMENTS.set(new ArrayList<>());
+		try {
+			action.get();
+			return STATEMENTS.get();
+		} finally {
+			STATEMENTS.remove();
+		}
+	}
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = STATEMENTS.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+}